@@ -177,7 +177,9 @@ export const OfflineProvider = ({ children }) => {
         method,
         headers: {
           'Content-Type': 'application/json',
-          'Authorization': `Bearer ${localStorage.getItem('token')}`
+          'Authorization': `Bearer ${localStorage.getItem('token')}`,
+          // Stable across retries, so the server can recognise a replayed submission
+          'Idempotency-Key': String(action.id)
         },
         body: JSON.stringify(data)
       });
@@ -218,25 +220,23 @@ export const OfflineProvider = ({ children }) => {
     if (!isOnline) return;
     
     try {
-      // Preload course data
-      const courseResponse = await fetch(`/api/courses/${courseId}`);
-      if (courseResponse.ok) {
-        const course = await courseResponse.json();
-        await cacheData('courses', course);
-      }
-      
-      // Preload lessons
-      const lessonsResponse = await fetch(`/api/lessons/course/${courseId}`);
-      if (lessonsResponse.ok) {
-        const lessons = await lessonsResponse.json();
-        await cacheData('lessons', lessons);
-      }
-      
-      // Preload quizzes
-      const quizzesResponse = await fetch(`/api/quiz/course/${courseId}`);
-      if (quizzesResponse.ok) {
-        const quizzes = await quizzesResponse.json();
-        await cacheData('quizzes', quizzes);
+      // One gzip-compressed NDJSON download: the course line, then its lessons, then its quizzes
+      const bundleResponse = await fetch(`/api/courses/${courseId}/bundle`);
+      if (bundleResponse.ok) {
+        const records = { course: [], lesson: [], quiz: [] };
+        const text = await bundleResponse.text();
+        for (const line of text.split('\n')) {
+          if (!line) continue;
+          const { type, data } = JSON.parse(line);
+          if (records[type]) {
+            records[type].push(data);
+          }
+        }
+        if (records.course.length > 0) {
+          await cacheData('courses', records.course[0]);
+        }
+        await cacheData('lessons', records.lesson);
+        await cacheData('quizzes', records.quiz);
       }
       
       console.log(`Preloaded content for course ${courseId}`);
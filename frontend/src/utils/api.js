@@ -78,6 +78,7 @@ export const lessonsAPI = {
   updateLesson: (id, lessonData) => api.put(`/lessons/${id}`, lessonData),
   deleteLesson: (id) => api.delete(`/lessons/${id}`),
   reorderLesson: (id, newOrder) => api.put(`/lessons/${id}/reorder?newOrder=${newOrder}`),
+  applyLessonOrder: (courseId, lessonIds) => api.put(`/lessons/course/${courseId}/order`, lessonIds),
 };
 
 export const quizAPI = {
@@ -85,6 +86,7 @@ export const quizAPI = {
   getQuizzesByCourse: (courseId) => api.get(`/quiz/course/${courseId}`),
   getQuiz: (id) => api.get(`/quiz/${id}`),
   submitQuiz: (submission) => api.post('/quiz/submit', submission),
+  submitQuizBatch: (answers) => api.post('/quiz/submit/batch', { answers }),
   getMyResults: () => api.get('/quiz/results/my'),
   getMyResultsByCourse: (courseId) => api.get(`/quiz/results/my/course/${courseId}`),
   getMyResult: (quizId) => api.get(`/quiz/results/${quizId}/my`),
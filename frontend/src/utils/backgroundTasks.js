@@ -138,25 +138,23 @@ export const preloadCourseContent = async (courseId) => {
     try {
       console.log(`Preloading content for course ${courseId}`);
       
-      // Preload course data
-      const courseResponse = await fetch(`/api/courses/${courseId}`);
-      if (courseResponse.ok) {
-        const course = await courseResponse.json();
-        await cacheInIndexedDB('courses', course);
-      }
-
-      // Preload lessons
-      const lessonsResponse = await fetch(`/api/lessons/course/${courseId}`);
-      if (lessonsResponse.ok) {
-        const lessons = await lessonsResponse.json();
-        await cacheInIndexedDB('lessons', lessons);
-      }
-
-      // Preload quizzes
-      const quizzesResponse = await fetch(`/api/quiz/course/${courseId}`);
-      if (quizzesResponse.ok) {
-        const quizzes = await quizzesResponse.json();
-        await cacheInIndexedDB('quizzes', quizzes);
+      // One gzip-compressed NDJSON download: the course line, then its lessons, then its quizzes
+      const bundleResponse = await fetch(`/api/courses/${courseId}/bundle`);
+      if (bundleResponse.ok) {
+        const records = { course: [], lesson: [], quiz: [] };
+        const text = await bundleResponse.text();
+        for (const line of text.split('\n')) {
+          if (!line) continue;
+          const { type, data } = JSON.parse(line);
+          if (records[type]) {
+            records[type].push(data);
+          }
+        }
+        if (records.course.length > 0) {
+          await cacheInIndexedDB('courses', records.course[0]);
+        }
+        await cacheInIndexedDB('lessons', records.lesson);
+        await cacheInIndexedDB('quizzes', records.quiz);
       }
 
       console.log(`Successfully preloaded content for course ${courseId}`);
@@ -269,10 +267,14 @@ export const smartPreload = {
           const lessons = await response.json();
           const currentIndex = lessons.findIndex(l => l.id === currentLessonId);
           
+          // The course list holds summaries only, so fetch the next lesson itself for its content
           if (currentIndex >= 0 && currentIndex < lessons.length - 1) {
-            const nextLesson = lessons[currentIndex + 1];
-            await cacheInIndexedDB('lessons', nextLesson);
-            console.log(`Preloaded next lesson: ${nextLesson.title}`);
+            const lessonResponse = await fetch(`/api/lessons/${lessons[currentIndex + 1].id}`);
+            if (lessonResponse.ok) {
+              const nextLesson = await lessonResponse.json();
+              await cacheInIndexedDB('lessons', nextLesson);
+              console.log(`Preloaded next lesson: ${nextLesson.title}`);
+            }
           }
         }
       } catch (error) {
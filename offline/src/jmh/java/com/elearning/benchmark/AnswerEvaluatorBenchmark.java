@@ -0,0 +1,93 @@
+package com.elearning.benchmark;
+
+import com.elearning.entity.Quiz;
+import com.elearning.grading.AnswerKey;
+import com.elearning.grading.ChoiceAnswerEvaluator;
+import com.elearning.grading.FillBlankAnswerEvaluator;
+import com.elearning.grading.MatchingAnswerEvaluator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+// Grading one submission against an already compiled answer key, per evaluator. Drawings are covered by
+// DrawingGradingBenchmark, since decoding dominates there.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class AnswerEvaluatorBenchmark {
+
+    private AnswerKey choice;
+    private AnswerKey fillBlankExact;
+    private AnswerKey fillBlankAlternatives;
+    private AnswerKey fillBlankPattern;
+    private AnswerKey matching;
+
+    @Setup
+    public void setUp() {
+        ChoiceAnswerEvaluator choiceEvaluator = new ChoiceAnswerEvaluator();
+        FillBlankAnswerEvaluator fillBlankEvaluator = new FillBlankAnswerEvaluator();
+        MatchingAnswerEvaluator matchingEvaluator = new MatchingAnswerEvaluator();
+        ReflectionTestUtils.setField(matchingEvaluator, "objectMapper", new ObjectMapper());
+
+        choice = choiceEvaluator.compile(quiz(Quiz.QuizType.MULTIPLE_CHOICE, "All of the above"));
+        fillBlankExact = fillBlankEvaluator.compile(quiz(Quiz.QuizType.FILL_BLANK, "getElementById"));
+        fillBlankAlternatives = fillBlankEvaluator.compile(
+                fillBlank("colour|color|hue", Quiz.AnswerMatching.ALTERNATIVES));
+        fillBlankPattern = fillBlankEvaluator.compile(
+                fillBlank("/get\\s*element\\s*by\\s*id/", Quiz.AnswerMatching.PATTERN));
+        matching = matchingEvaluator.compile(quiz(Quiz.QuizType.MATCHING,
+                "{\"cat\":\"mammal\",\"eagle\":\"bird\",\"shark\":\"fish\",\"frog\":\"amphibian\"}"));
+    }
+
+    @Benchmark
+    public boolean choice() {
+        return choice.matches("  all of the ABOVE ");
+    }
+
+    @Benchmark
+    public boolean fillBlankExact() {
+        return fillBlankExact.matches(" GetElementById ");
+    }
+
+    @Benchmark
+    public boolean fillBlankAlternatives() {
+        return fillBlankAlternatives.matches("  Color ");
+    }
+
+    @Benchmark
+    public boolean fillBlankPattern() {
+        return fillBlankPattern.matches("getElementById");
+    }
+
+    @Benchmark
+    public boolean matching() {
+        return matching.matches("{\"frog\":\"Amphibian\",\"shark\":\"fish\",\"eagle\":\"bird\",\"cat\":\"mammal\"}");
+    }
+
+    private static Quiz quiz(Quiz.QuizType type, String correctAnswer) {
+        Quiz quiz = new Quiz();
+        quiz.setType(type);
+        quiz.setCorrectAnswer(correctAnswer);
+        return quiz;
+    }
+
+    private static Quiz fillBlank(String correctAnswer, Quiz.AnswerMatching matching) {
+        Quiz quiz = quiz(Quiz.QuizType.FILL_BLANK, correctAnswer);
+        quiz.setAnswerMatching(matching);
+        return quiz;
+    }
+}
@@ -0,0 +1,106 @@
+package com.elearning.benchmark;
+
+import com.elearning.entity.Quiz;
+import com.elearning.grading.AnswerKey;
+import com.elearning.grading.DrawingAnswerEvaluator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+// Drawing answers as DrawingCanvas sends them: transparent PNG data URLs of a hand-drawn shape. Measures
+// compiling the reference hash, grading one answer, and answers graded per second with every core busy,
+// which is what the grading pool sustains when a whole class submits at once.
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DrawingGradingBenchmark {
+
+    @Param({"300", "800"})
+    private int canvasSize;
+
+    private DrawingAnswerEvaluator evaluator;
+    private Quiz quiz;
+    private AnswerKey key;
+    private String answer;
+
+    @Setup
+    public void setUp() throws IOException {
+        evaluator = new DrawingAnswerEvaluator();
+        ReflectionTestUtils.setField(evaluator, "defaultThreshold", 80);
+        ReflectionTestUtils.setField(evaluator, "maxAnswerChars", 2000000);
+        quiz = new Quiz();
+        quiz.setType(Quiz.QuizType.DRAWING);
+        quiz.setCorrectAnswer(drawing(canvasSize, 0));
+        key = evaluator.compile(quiz);
+        // The same house drawn further right, with a slightly different roof
+        answer = drawing(canvasSize, canvasSize / 20);
+        if (!key.matches(answer)) {
+            throw new IllegalStateException("Benchmark answer is expected to match its reference");
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public AnswerKey compileReference() {
+        return evaluator.compile(quiz);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public boolean gradeOne() {
+        return key.matches(answer);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @Threads(Threads.MAX)
+    public boolean gradeOnAllCores() {
+        return key.matches(answer);
+    }
+
+    private static String drawing(int size, int offset) throws IOException {
+        BufferedImage image = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = image.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            graphics.setColor(Color.BLACK);
+            graphics.setStroke(new BasicStroke(Math.max(2, size / 60f)));
+            int unit = size / 10;
+            int x = 2 * unit + offset;
+            graphics.drawRect(x, 4 * unit, 5 * unit, 4 * unit);
+            graphics.drawPolyline(new int[] {x - offset / 4, x + 5 * unit / 2, x + 5 * unit + offset / 4},
+                    new int[] {4 * unit, unit + offset / 3, 4 * unit}, 3);
+            graphics.drawRect(x + 2 * unit, 6 * unit, unit, 2 * unit);
+        } finally {
+            graphics.dispose();
+        }
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", png);
+        return "data:image/png;base64," + Base64.getEncoder().encodeToString(png.toByteArray());
+    }
+}
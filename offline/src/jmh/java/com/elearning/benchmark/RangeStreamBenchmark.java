@@ -0,0 +1,167 @@
+package com.elearning.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Concurrent video streams: every benchmark thread is one player pulling random ranges of the same file
+// over its own loopback socket. sendfile is transferTo straight into the socket, which is what Tomcat does
+// for MediaController when sendfile is available. servletStreamCopy is the controller's fallback, a copy
+// through a heap buffer into an 8 KiB buffered stream standing in for the servlet output stream.
+// transferToStream is transferTo into a channel wrapping that stream: the JDK cannot hand that target to
+// the kernel, so it is a buffered copy too, not zero-copy. Vary the number of streams with -t, e.g. -t 32.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(8)
+@Fork(1)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+public class RangeStreamBenchmark {
+
+    private static final int FILE_BYTES = 64 * 1024 * 1024;
+    private static final int COPY_BUFFER = 64 * 1024;
+    // Tomcat's default response buffer
+    private static final int SERVLET_BUFFER = 8 * 1024;
+
+    @State(Scope.Benchmark)
+    public static class Video {
+        private Path file;
+
+        @Setup
+        public void setUp() throws IOException {
+            file = Files.createTempFile("range-stream-", ".mp4");
+            byte[] chunk = new byte[1024 * 1024];
+            new Random(42).nextBytes(chunk);
+            try (FileChannel out = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                for (int written = 0; written < FILE_BYTES; written += chunk.length) {
+                    out.write(ByteBuffer.wrap(chunk));
+                }
+            }
+        }
+
+        @TearDown
+        public void tearDown() throws IOException {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    // One player: a socket whose far end is drained by its own thread, and an open handle on the file
+    @State(Scope.Thread)
+    public static class Stream {
+        @Param({"262144", "2097152"})
+        private int rangeBytes;
+
+        private ServerSocketChannel server;
+        private SocketChannel socket;
+        private OutputStream servletStream;
+        private WritableByteChannel servletChannel;
+        private Thread drain;
+        private FileChannel channel;
+        private ByteBuffer buffer;
+
+        @Setup(Level.Trial)
+        public void setUp(Video video) throws IOException {
+            server = ServerSocketChannel.open().bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            socket = SocketChannel.open(server.getLocalAddress());
+            SocketChannel player = server.accept();
+            drain = new Thread(() -> {
+                ByteBuffer sink = ByteBuffer.allocateDirect(COPY_BUFFER);
+                try (player) {
+                    while (player.read(sink.clear()) >= 0) {
+                        // discard
+                    }
+                } catch (IOException e) {
+                    // closed at tear down
+                }
+            }, "range-stream-drain");
+            drain.setDaemon(true);
+            drain.start();
+            servletStream = new BufferedOutputStream(Channels.newOutputStream(socket), SERVLET_BUFFER);
+            servletChannel = Channels.newChannel(servletStream);
+            channel = FileChannel.open(video.file, StandardOpenOption.READ);
+            buffer = ByteBuffer.allocate(COPY_BUFFER);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException, InterruptedException {
+            channel.close();
+            socket.close();
+            server.close();
+            drain.join(1000);
+        }
+
+        private long randomStart() {
+            return ThreadLocalRandom.current().nextLong(FILE_BYTES - rangeBytes);
+        }
+    }
+
+    @Benchmark
+    public long sendfile(Stream stream) throws IOException {
+        long position = stream.randomStart();
+        long count = stream.rangeBytes;
+        while (count > 0) {
+            long sent = stream.channel.transferTo(position, count, stream.socket);
+            position += sent;
+            count -= sent;
+        }
+        return position;
+    }
+
+    @Benchmark
+    public long servletStreamCopy(Stream stream) throws IOException {
+        long position = stream.randomStart();
+        long end = position + stream.rangeBytes;
+        ByteBuffer buffer = stream.buffer;
+        while (position < end) {
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), end - position));
+            int read = stream.channel.read(buffer, position);
+            stream.servletStream.write(buffer.array(), 0, read);
+            position += read;
+        }
+        stream.servletStream.flush();
+        return position;
+    }
+
+    @Benchmark
+    public long transferToStream(Stream stream) throws IOException {
+        long position = stream.randomStart();
+        long count = stream.rangeBytes;
+        while (count > 0) {
+            long sent = stream.channel.transferTo(position, count, stream.servletChannel);
+            position += sent;
+            count -= sent;
+        }
+        stream.servletStream.flush();
+        return position;
+    }
+}
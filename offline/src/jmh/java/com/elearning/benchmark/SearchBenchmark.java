@@ -0,0 +1,110 @@
+package com.elearning.benchmark;
+
+import com.elearning.search.InvertedIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// One search over a synthetic lesson corpus: the LOWER(x) LIKE '%term%' scan the repositories fall back to,
+// done in memory so it is a lower bound on the database cost (no I/O, no TOAST reads), against the
+// inverted index. Words are random letter strings drawn from a fixed vocabulary of 20,000.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SearchBenchmark {
+
+    private static final int VOCABULARY = 20000;
+    private static final int TITLE_WORDS = 5;
+    private static final int BODY_WORDS = 200;
+
+    @Param({"1000", "10000"})
+    private int documents;
+
+    @Param({"1", "2"})
+    private int queryWords;
+
+    private final List<String> titles = new ArrayList<>();
+    private final List<String> bodies = new ArrayList<>();
+    private final InvertedIndex<Long> index = new InvertedIndex<>();
+    private String query;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        String[] words = new String[VOCABULARY];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = word(random);
+        }
+        for (int id = 0; id < documents; id++) {
+            String title = text(random, words, TITLE_WORDS);
+            String body = text(random, words, BODY_WORDS);
+            titles.add(title);
+            bodies.add(body);
+            index.put(id, (long) id, title, body);
+        }
+        // Taken from a document so the query always has hits
+        String[] source = bodies.get(documents / 2).split(" ");
+        query = String.join(" ", List.of(source).subList(0, queryWords));
+    }
+
+    @Benchmark
+    public List<Long> likeScan() {
+        String[] terms = query.toLowerCase().split(" ");
+        List<Long> ids = new ArrayList<>();
+        for (int id = 0; id < documents; id++) {
+            String title = titles.get(id).toLowerCase();
+            String body = bodies.get(id).toLowerCase();
+            boolean matches = true;
+            for (String term : terms) {
+                if (!title.contains(term) && !body.contains(term)) {
+                    matches = false;
+                    break;
+                }
+            }
+            if (matches) {
+                ids.add((long) id);
+            }
+        }
+        return ids;
+    }
+
+    @Benchmark
+    public List<Long> invertedIndex() {
+        return index.search(query, metadata -> true, 200);
+    }
+
+    private static String text(Random random, String[] words, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(words[random.nextInt(words.length)]);
+        }
+        return text.toString();
+    }
+
+    private static String word(Random random) {
+        char[] letters = new char[4 + random.nextInt(6)];
+        for (int i = 0; i < letters.length; i++) {
+            letters[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(letters);
+    }
+}
@@ -0,0 +1,104 @@
+package com.elearning.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class ExecutorConfig {
+
+    // BCrypt is CPU bound: keep it off the request threads and reject instead of queueing without limit
+    @Bean(name = "passwordHashingExecutor")
+    public ThreadPoolTaskExecutor passwordHashingExecutor(
+            @Value("${security.password-hashing.threads:0}") int threads,
+            @Value("${security.password-hashing.queue-capacity:64}") int queueCapacity) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("password-hash-");
+        executor.initialize();
+        return executor;
+    }
+
+    // Bulk imports hash whole batches in parallel without competing with interactive logins
+    @Bean(name = "bulkPasswordHashingExecutor")
+    public ThreadPoolTaskExecutor bulkPasswordHashingExecutor(
+            @Value("${security.password-hashing.bulk-threads:0}") int threads) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setThreadNamePrefix("bulk-password-hash-");
+        executor.initialize();
+        return executor;
+    }
+
+    // Account lookups and inserts that follow a password hash. Only work that got through the bounded hashing
+    // pool arrives here, so the queue needs no bound of its own (and a rejection would strand the chained stage)
+    @Bean(name = "accountExecutor")
+    public ThreadPoolTaskExecutor accountExecutor(
+            @Value("${security.password-hashing.account-threads:4}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("account-");
+        executor.initialize();
+        return executor;
+    }
+
+    // Image resizing is memory hungry: a few workers and a bounded queue; rejected work is retried on demand
+    @Bean(name = "imageDerivativeExecutor")
+    public ThreadPoolTaskExecutor imageDerivativeExecutor(
+            @Value("${media.derivatives.threads:2}") int threads,
+            @Value("${media.derivatives.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("image-derivative-");
+        executor.initialize();
+        return executor;
+    }
+
+    // Drawing answers are decoded and hashed here so a class submitting at once cannot tie up request threads
+    @Bean(name = "answerGradingExecutor")
+    public ThreadPoolTaskExecutor answerGradingExecutor(
+            @Value("${quiz.grading.threads:0}") int threads,
+            @Value("${quiz.grading.queue-capacity:500}") int queueCapacity) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("answer-grading-");
+        executor.initialize();
+        return executor;
+    }
+
+    // Stores graded drawing answers, so grading threads never wait on the database or a journal fsync. Grading
+    // is already bounded by its queue, so this one is not; keep the threads within the connection pool size
+    @Bean(name = "quizResultWriteExecutor")
+    public ThreadPoolTaskExecutor quizResultWriteExecutor(
+            @Value("${quiz.grading.write-threads:8}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("quiz-result-write-");
+        executor.initialize();
+        return executor;
+    }
+
+    // Rebuilds of derived in-memory structures run one at a time, off the committing request thread
+    @Bean(name = "indexRebuildExecutor")
+    public ThreadPoolTaskExecutor indexRebuildExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setThreadNamePrefix("index-rebuild-");
+        executor.initialize();
+        return executor;
+    }
+}
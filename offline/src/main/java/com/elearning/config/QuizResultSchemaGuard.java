@@ -0,0 +1,62 @@
+package com.elearning.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// Submissions rely on the unique (student_id, quiz_id) constraint to reject duplicates. Databases written by the
+// old check-then-save code can hold duplicate rows, which would make schema update fail to add it (quietly),
+// so they are removed before Hibernate runs, and startup is refused if the constraint is still missing after.
+@Component("quizResultSchemaGuard")
+public class QuizResultSchemaGuard implements InitializingBean, SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuizResultSchemaGuard.class);
+    private static final String CONSTRAINT = "uk_quiz_results_student_quiz";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public QuizResultSchemaGuard(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Runs before the entity manager factory, i.e. before schema update
+    @Override
+    public void afterPropertiesSet() {
+        Boolean tableExists = jdbcTemplate.queryForObject("SELECT to_regclass('quiz_results') IS NOT NULL", Boolean.class);
+        if (!Boolean.TRUE.equals(tableExists) || constraintExists()) {
+            return;
+        }
+        // Keeps the earliest answer, which is the one the old code meant to keep
+        int deleted = jdbcTemplate.update("DELETE FROM quiz_results r USING quiz_results e " +
+                "WHERE e.student_id = r.student_id AND e.quiz_id = r.quiz_id AND e.id < r.id");
+        if (deleted > 0) {
+            logger.warn("Deleted {} duplicate quiz results before adding {}", deleted, CONSTRAINT);
+        }
+    }
+
+    // Runs after schema update and before the web server accepts requests
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!constraintExists()) {
+            throw new IllegalStateException("quiz_results is missing the " + CONSTRAINT + " unique constraint on " +
+                    "(student_id, quiz_id); duplicate submissions cannot be rejected without it");
+        }
+    }
+
+    private boolean constraintExists() {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_constraint WHERE conname = ?", Integer.class, CONSTRAINT);
+        return count != null && count > 0;
+    }
+
+    @Component
+    static class EntityManagerFactoryDependency extends EntityManagerFactoryDependsOnPostProcessor {
+        EntityManagerFactoryDependency() {
+            super("quizResultSchemaGuard");
+        }
+    }
+}
@@ -7,17 +7,20 @@ import com.elearning.dto.SignupRequest;
 import com.elearning.entity.User;
 import com.elearning.repository.UserRepository;
 import com.elearning.security.JwtUtils;
+import com.elearning.security.LoginAttemptThrottle;
+import com.elearning.service.PasswordHashingService;
+import com.elearning.service.UserDetailsServiceImpl;
+import io.jsonwebtoken.Claims;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
@@ -26,67 +29,85 @@ import java.util.stream.Collectors;
 public class AuthController {
     
     @Autowired
-    AuthenticationManager authenticationManager;
+    UserRepository userRepository;
 
     @Autowired
-    UserRepository userRepository;
+    PasswordHashingService passwordHashingService;
 
     @Autowired
-    PasswordEncoder encoder;
+    LoginAttemptThrottle loginAttemptThrottle;
 
     @Autowired
     JwtUtils jwtUtils;
 
-    @PostMapping("/login")
-    public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
-        try {
-            Authentication authentication = authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword()));
-
-            SecurityContextHolder.getContext().setAuthentication(authentication);
-            String jwt = jwtUtils.generateJwtToken(authentication);
-
-            User userDetails = (User) authentication.getPrincipal();
-            List<String> roles = userDetails.getAuthorities().stream()
-                    .map(item -> item.getAuthority())
-                    .collect(Collectors.toList());
-
-            return ResponseEntity.ok(new JwtResponse(jwt,
-                    userDetails.getId(),
-                    userDetails.getUsername(),
-                    userDetails.getEmail(),
-                    userDetails.getFirstName(),
-                    userDetails.getLastName(),
-                    roles));
-        } catch (Exception e) {
-            return ResponseEntity.badRequest()
-                    .body(new MessageResponse("Error: Invalid credentials!", false));
-        }
-    }
-
-    @PostMapping("/register")
-    public ResponseEntity<?> registerUser(@Valid @RequestBody SignupRequest signUpRequest) {
-        if (userRepository.existsByUsername(signUpRequest.getUsername())) {
-            return ResponseEntity.badRequest()
-                    .body(new MessageResponse("Error: Username is already taken!", false));
-        }
+    @Autowired
+    UserDetailsServiceImpl userDetailsService;
 
-        if (userRepository.existsByEmail(signUpRequest.getEmail())) {
-            return ResponseEntity.badRequest()
-                    .body(new MessageResponse("Error: Email is already in use!", false));
-        }
+    @Autowired
+    @Qualifier("accountExecutor")
+    ThreadPoolTaskExecutor accountExecutor;
 
-        // Create new user's account
-        User user = new User(signUpRequest.getUsername(),
-                signUpRequest.getEmail(),
-                encoder.encode(signUpRequest.getPassword()),
-                signUpRequest.getFirstName(),
-                signUpRequest.getLastName(),
-                determineRole(signUpRequest.getRole()));
+    @PostMapping("/login")
+    public CompletableFuture<ResponseEntity<?>> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
+        String username = loginRequest.getUsername();
+        loginAttemptThrottle.checkAllowed(username);
+
+        // BCrypt verification runs on the bounded hashing pool; a full pool is rejected with 429
+        return passwordHashingService.authenticate(username, loginRequest.getPassword())
+                .<ResponseEntity<?>>thenApply(authentication -> {
+                    loginAttemptThrottle.recordSuccess(username);
+                    String jwt = jwtUtils.generateJwtToken(authentication);
+
+                    User userDetails = (User) authentication.getPrincipal();
+                    List<String> roles = userDetails.getAuthorities().stream()
+                            .map(item -> item.getAuthority())
+                            .collect(Collectors.toList());
 
-        userRepository.save(user);
+                    return ResponseEntity.ok(new JwtResponse(jwt,
+                            userDetails.getId(),
+                            userDetails.getUsername(),
+                            userDetails.getEmail(),
+                            userDetails.getFirstName(),
+                            userDetails.getLastName(),
+                            roles));
+                })
+                .exceptionally(e -> {
+                    if (e.getCause() instanceof AuthenticationException) {
+                        loginAttemptThrottle.recordFailure(username);
+                    }
+                    return ResponseEntity.badRequest()
+                            .body(new MessageResponse("Error: Invalid credentials!", false));
+                });
+    }
 
-        return ResponseEntity.ok(new MessageResponse("User registered successfully!"));
+    // BCrypt runs on the bounded hashing pool (429 when it is full); the lookups and the insert then run on the
+    // account pool, so neither a request thread nor a hashing thread waits on the database
+    @PostMapping("/register")
+    public CompletableFuture<ResponseEntity<?>> registerUser(@Valid @RequestBody SignupRequest signUpRequest) {
+        return passwordHashingService.encode(signUpRequest.getPassword())
+                .<ResponseEntity<?>>thenApplyAsync(encodedPassword -> {
+                    if (userRepository.existsByUsername(signUpRequest.getUsername())) {
+                        return ResponseEntity.badRequest()
+                                .body(new MessageResponse("Error: Username is already taken!", false));
+                    }
+
+                    if (userRepository.existsByEmail(signUpRequest.getEmail())) {
+                        return ResponseEntity.badRequest()
+                                .body(new MessageResponse("Error: Email is already in use!", false));
+                    }
+
+                    // Create new user's account
+                    User user = new User(signUpRequest.getUsername(),
+                            signUpRequest.getEmail(),
+                            encodedPassword,
+                            signUpRequest.getFirstName(),
+                            signUpRequest.getLastName(),
+                            determineRole(signUpRequest.getRole()));
+
+                    userRepository.save(user);
+
+                    return ResponseEntity.ok(new MessageResponse("User registered successfully!"));
+                }, accountExecutor);
     }
 
     @GetMapping("/validate")
@@ -94,10 +115,9 @@ public class AuthController {
         try {
             if (token != null && token.startsWith("Bearer ")) {
                 String jwt = token.substring(7);
-                if (jwtUtils.validateJwtToken(jwt)) {
-                    String username = jwtUtils.getUserNameFromJwtToken(jwt);
-                    User user = userRepository.findByUsername(username)
-                            .orElseThrow(() -> new RuntimeException("User not found"));
+                Claims claims = jwtUtils.parseJwtToken(jwt);
+                if (claims != null) {
+                    User user = userDetailsService.loadFullUser(claims.getSubject());
                     
                     List<String> roles = user.getAuthorities().stream()
                             .map(item -> item.getAuthority())
@@ -1,14 +1,21 @@
 package com.elearning.controller;
 
+import com.elearning.dto.CourseBrowseResult;
 import com.elearning.dto.MessageResponse;
+import com.elearning.dto.SearchSuggestion;
 import com.elearning.entity.Course;
 import com.elearning.entity.User;
+import com.elearning.search.CourseFacetService;
+import com.elearning.search.SuggestionService;
+import com.elearning.service.CourseBundleService;
 import com.elearning.service.CourseService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
 import java.util.List;
@@ -22,11 +29,21 @@ public class CourseController {
     @Autowired
     private CourseService courseService;
 
+    @Autowired
+    private CourseBundleService courseBundleService;
+
+    @Autowired
+    private SuggestionService suggestionService;
+
+    @Autowired
+    private CourseFacetService courseFacetService;
+
     // Public endpoints (no authentication required)
     @GetMapping("/public/all")
-    public ResponseEntity<List<Course>> getAllPublishedCourses() {
-        List<Course> courses = courseService.getAllPublishedCourses();
-        return ResponseEntity.ok(courses);
+    public ResponseEntity<byte[]> getAllPublishedCourses(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return courseService.getPublicCatalogSnapshot().getCourses().toResponse(ifNoneMatch, acceptEncoding);
     }
 
     @GetMapping("/public/{id}")
@@ -44,6 +61,12 @@ public class CourseController {
         return ResponseEntity.ok(courses);
     }
 
+    @GetMapping("/public/suggest")
+    public ResponseEntity<List<SearchSuggestion>> suggest(@RequestParam String prefix,
+                                                          @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(suggestionService.suggest(prefix, limit));
+    }
+
     @GetMapping("/public/filter")
     public ResponseEntity<List<Course>> filterCourses(
             @RequestParam(required = false) String search,
@@ -53,24 +76,36 @@ public class CourseController {
         return ResponseEntity.ok(courses);
     }
 
+    @GetMapping("/public/browse")
+    public ResponseEntity<CourseBrowseResult> browseCourses(
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String difficulty,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(courseFacetService.browse(search, category, difficulty, cursor, limit));
+    }
+
     @GetMapping("/public/categories")
-    public ResponseEntity<List<String>> getAllCategories() {
-        List<String> categories = courseService.getAllCategories();
-        return ResponseEntity.ok(categories);
+    public ResponseEntity<byte[]> getAllCategories(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return courseService.getPublicCatalogSnapshot().getCategories().toResponse(ifNoneMatch, acceptEncoding);
     }
 
     @GetMapping("/public/difficulties")
-    public ResponseEntity<List<String>> getAllDifficulties() {
-        List<String> difficulties = courseService.getAllDifficulties();
-        return ResponseEntity.ok(difficulties);
+    public ResponseEntity<byte[]> getAllDifficulties(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return courseService.getPublicCatalogSnapshot().getDifficulties().toResponse(ifNoneMatch, acceptEncoding);
     }
 
     // Protected endpoints (authentication required)
     @GetMapping("/all")
     @PreAuthorize("hasRole('TEACHER')")
-    public ResponseEntity<List<Course>> getAllCourses() {
-        List<Course> courses = courseService.getAllCourses();
-        return ResponseEntity.ok(courses);
+    public ResponseEntity<List<Course>> getAllCourses(@RequestParam(required = false) String cursor,
+                                                      @RequestParam(required = false) Integer limit) {
+        return courseService.getAllCourses(cursor, limit).toResponse();
     }
 
     @GetMapping("/{id}")
@@ -83,6 +118,15 @@ public class CourseController {
         return ResponseEntity.notFound().build();
     }
 
+    // Course, lessons and quizzes in one gzip-compressed NDJSON download for offline use
+    @GetMapping("/{id}/bundle")
+    @PreAuthorize("hasRole('STUDENT') or hasRole('TEACHER')")
+    public ResponseEntity<StreamingResponseBody> getCourseBundle(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return courseBundleService.getBundle(id, ifNoneMatch);
+    }
+
     @GetMapping("/my-courses")
     @PreAuthorize("hasRole('TEACHER')")
     public ResponseEntity<List<Course>> getMyCourses(Authentication authentication) {
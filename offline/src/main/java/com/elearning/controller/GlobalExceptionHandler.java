@@ -0,0 +1,34 @@
+package com.elearning.controller;
+
+import com.elearning.dto.MessageResponse;
+import com.elearning.exception.InvalidCursorException;
+import com.elearning.exception.TooManyRequestsException;
+import com.elearning.exception.UploadConflictException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+@RestControllerAdvice
+public class GlobalExceptionHandler {
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<MessageResponse> handleTooManyRequests(TooManyRequestsException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(new MessageResponse("Error: " + e.getMessage(), false));
+    }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<MessageResponse> handleInvalidCursor(InvalidCursorException e) {
+        return ResponseEntity.badRequest()
+                .body(new MessageResponse("Error: " + e.getMessage(), false));
+    }
+
+    @ExceptionHandler(UploadConflictException.class)
+    public ResponseEntity<MessageResponse> handleUploadConflict(UploadConflictException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(new MessageResponse("Error: " + e.getMessage(), false));
+    }
+}
@@ -1,14 +1,20 @@
 package com.elearning.controller;
 
+import com.elearning.dto.ContentVersion;
+import com.elearning.dto.LessonContent;
+import com.elearning.dto.LessonSummary;
 import com.elearning.dto.MessageResponse;
 import com.elearning.entity.Lesson;
 import com.elearning.entity.User;
 import com.elearning.service.LessonService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import jakarta.validation.Valid;
 import java.util.List;
@@ -22,23 +28,56 @@ public class LessonController {
     @Autowired
     private LessonService lessonService;
 
+    // Lists are served as summaries: inflating every stored body on each read only to list titles cost more than
+    // the rest of the request. Open a lesson through /lessons/{id} or /lessons/{id}/content for its body.
     @GetMapping("/course/{courseId}")
     @PreAuthorize("hasRole('STUDENT') or hasRole('TEACHER')")
-    public ResponseEntity<List<Lesson>> getLessonsByCourse(@PathVariable Long courseId) {
-        List<Lesson> lessons = lessonService.getLessonsByCourse(courseId);
-        return ResponseEntity.ok(lessons);
+    public ResponseEntity<List<LessonSummary>> getLessonsByCourse(@PathVariable Long courseId, WebRequest webRequest) {
+        return getLessonSummariesByCourse(courseId, webRequest);
+    }
+
+    // Sidebar listing without lesson bodies; open a lesson through /lessons/{id} to load its content
+    @GetMapping("/course/{courseId}/summary")
+    @PreAuthorize("hasRole('STUDENT') or hasRole('TEACHER')")
+    public ResponseEntity<List<LessonSummary>> getLessonSummariesByCourse(@PathVariable Long courseId, WebRequest webRequest) {
+        ContentVersion version = lessonService.getLessonSummariesVersionByCourse(courseId);
+        if (webRequest.checkNotModified(version.getEtag(), version.getLastModifiedMillis())) {
+            return null;
+        }
+
+        return ResponseEntity.ok(lessonService.getLessonSummariesByCourse(courseId));
     }
 
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('STUDENT') or hasRole('TEACHER')")
-    public ResponseEntity<?> getLessonById(@PathVariable Long id) {
+    public ResponseEntity<?> getLessonById(@PathVariable Long id, WebRequest webRequest) {
+        ContentVersion version = lessonService.getLessonVersion(id);
+        if (version.getCount() > 0 && webRequest.checkNotModified(version.getEtag(), version.getLastModifiedMillis())) {
+            return null;
+        }
+
         Optional<Lesson> lesson = lessonService.getLessonById(id);
         if (lesson.isPresent()) {
-            return ResponseEntity.ok(lesson.get());
+            Long nextId = lessonService.getNextLessonId(lesson.get().getCourseId(), lesson.get().getLessonOrder());
+            return withPreload(ResponseEntity.ok(), nextId).body(lesson.get());
         }
         return ResponseEntity.notFound().build();
     }
 
+    // Lesson body only, sent as the stored gzip bytes when the client accepts gzip
+    @GetMapping("/{id}/content")
+    @PreAuthorize("hasRole('STUDENT') or hasRole('TEACHER')")
+    public ResponseEntity<byte[]> getLessonContent(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        LessonContent content = lessonService.getLessonContent(id);
+        if (content == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return content.toPayload().toResponse(ifNoneMatch, acceptEncoding);
+    }
+
     @GetMapping("/course/{courseId}/search")
     @PreAuthorize("hasRole('STUDENT') or hasRole('TEACHER')")
     public ResponseEntity<List<Lesson>> searchLessonsInCourse(@PathVariable Long courseId, @RequestParam String q) {
@@ -50,7 +89,7 @@ public class LessonController {
     @PreAuthorize("hasRole('STUDENT') or hasRole('TEACHER')")
     public ResponseEntity<List<Lesson>> getNextLessons(@PathVariable Long courseId, @PathVariable Integer currentOrder) {
         List<Lesson> lessons = lessonService.getNextLessons(courseId, currentOrder);
-        return ResponseEntity.ok(lessons);
+        return withPreload(ResponseEntity.ok(), lessons.isEmpty() ? null : lessons.get(0).getId()).body(lessons);
     }
 
     @GetMapping("/course/{courseId}/previous/{currentOrder}")
@@ -65,7 +104,8 @@ public class LessonController {
     public ResponseEntity<?> getLessonByOrder(@PathVariable Long courseId, @PathVariable Integer order) {
         Lesson lesson = lessonService.getLessonByOrder(courseId, order);
         if (lesson != null) {
-            return ResponseEntity.ok(lesson);
+            return withPreload(ResponseEntity.ok(), lessonService.getNextLessonId(courseId, lesson.getLessonOrder()))
+                    .body(lesson);
         }
         return ResponseEntity.notFound().build();
     }
@@ -111,6 +151,22 @@ public class LessonController {
         }
     }
 
+    // Full sequence of lesson ids for the course, applied in one statement
+    @PutMapping("/course/{courseId}/order")
+    @PreAuthorize("hasRole('TEACHER')")
+    public ResponseEntity<?> applyLessonOrder(@PathVariable Long courseId, @RequestBody List<Long> lessonIds,
+                                              Authentication authentication) {
+        try {
+            User user = (User) authentication.getPrincipal();
+            List<Lesson> lessons = lessonService.applyLessonOrder(courseId, lessonIds, user.getId());
+            return ResponseEntity.ok(new MessageResponse("Lessons reordered successfully!", true, lessons));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Error reordering lessons: " + e.getMessage(), false));
+        }
+    }
+
+    // newOrder is the 1-based position to move the lesson to
     @PutMapping("/{id}/reorder")
     @PreAuthorize("hasRole('TEACHER')")
     public ResponseEntity<?> reorderLesson(@PathVariable Long id, @RequestParam Integer newOrder, 
@@ -146,4 +202,14 @@ public class LessonController {
         long count = lessonService.getLessonsCountByCourse(courseId);
         return ResponseEntity.ok(count);
     }
+
+    // Lets the client fetch the lesson a reader is most likely to open next while this one is shown
+    private static ResponseEntity.BodyBuilder withPreload(ResponseEntity.BodyBuilder response, Long lessonId) {
+        if (lessonId != null) {
+            String url = ServletUriComponentsBuilder.fromCurrentContextPath()
+                    .path("/lessons/{id}").buildAndExpand(lessonId).toUriString();
+            response.header(HttpHeaders.LINK, "<" + url + ">; rel=preload; as=fetch");
+        }
+        return response;
+    }
 }
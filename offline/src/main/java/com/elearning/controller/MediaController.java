@@ -0,0 +1,173 @@
+package com.elearning.controller;
+
+import com.elearning.dto.MessageResponse;
+import com.elearning.entity.MediaAsset;
+import com.elearning.entity.User;
+import com.elearning.service.ImageDerivativeService;
+import com.elearning.service.MediaStorageService;
+import com.elearning.util.MediaVariants;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.ZoneId;
+import java.util.List;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/media")
+public class MediaController {
+
+    // Tomcat hands the byte range to the kernel (sendfile) after the response headers are written
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    @Autowired
+    private MediaStorageService mediaStorageService;
+
+    @Autowired
+    private ImageDerivativeService imageDerivativeService;
+
+    @Value("${media.cache-max-age-seconds:31536000}")
+    private long cacheMaxAgeSeconds;
+
+    @Value("${media.sendfile-threshold-bytes:49152}")
+    private long sendfileThreshold;
+
+    @PostMapping
+    @PreAuthorize("hasRole('TEACHER')")
+    public ResponseEntity<?> upload(@RequestParam("file") MultipartFile file, Authentication authentication) {
+        try {
+            User user = (User) authentication.getPrincipal();
+            MediaAsset asset = mediaStorageService.store(file, user.getId());
+            asset.setUrl(mediaStorageService.urlFor(asset));
+            return ResponseEntity.ok(new MessageResponse("Media uploaded successfully!", true, asset));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(new MessageResponse("Error uploading media: " + e.getMessage(), false));
+        }
+    }
+
+    // Public so <video> and <img> tags can load it without a bearer token; keys are unguessable content hashes.
+    // ?w= picks a resized image variant; until it exists the original is sent without long-term caching.
+    @RequestMapping(value = "/{key}", method = {RequestMethod.GET, RequestMethod.HEAD})
+    public void serve(@PathVariable String key, @RequestParam(required = false) Integer w,
+                      HttpServletRequest request, HttpServletResponse response) throws IOException {
+        MediaAsset asset = mediaStorageService.find(key);
+        boolean immutable = true;
+        if (asset != null && w != null && MediaVariants.isVariantWidth(w) && imageDerivativeService.isResizable(asset)) {
+            String derivedKey = imageDerivativeService.findDerivative(asset, w);
+            if (derivedKey != null) {
+                asset = mediaStorageService.find(derivedKey);
+            } else {
+                immutable = false;
+            }
+        }
+        Path file = asset != null ? mediaStorageService.resolve(asset.getStorageKey()) : null;
+        if (file == null || !Files.isReadable(file)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        long length = asset.getSizeBytes();
+        String etag = "\"" + asset.getStorageKey() + "\"";
+        response.setContentType(asset.getContentType());
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED,
+                asset.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        response.setHeader(HttpHeaders.CACHE_CONTROL,
+                immutable ? "public, max-age=" + cacheMaxAgeSeconds + ", immutable" : "no-cache");
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (etagMatches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long start = 0;
+        long end = length - 1;
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (rangeHeader != null && (ifRange == null || ifRange.equals(etag))) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(rangeHeader);
+            } catch (IllegalArgumentException e) {
+                ranges = List.of();
+            }
+            // Players only ever ask for one range; multi-range requests get the whole file instead
+            if (ranges.size() == 1) {
+                try {
+                    start = ranges.get(0).getRangeStart(length);
+                    end = ranges.get(0).getRangeEnd(length);
+                } catch (IllegalArgumentException e) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                    response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    return;
+                }
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+        if ("HEAD".equals(request.getMethod()) || count <= 0) {
+            return;
+        }
+
+        if (count >= sendfileThreshold && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toRealPath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + count);
+            return;
+        }
+        // Without sendfile the range is copied through the servlet stream. This is not zero-copy: the
+        // servlet stream is no socket channel, so transferTo would copy through its own 8 KiB buffer as well.
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            OutputStream out = response.getOutputStream();
+            ByteBuffer buffer = ByteBuffer.allocate(COPY_BUFFER_SIZE);
+            long position = start;
+            while (count > 0) {
+                buffer.clear();
+                buffer.limit((int) Math.min(COPY_BUFFER_SIZE, count));
+                int read = channel.read(buffer, position);
+                if (read <= 0) {
+                    break;
+                }
+                out.write(buffer.array(), 0, read);
+                position += read;
+                count -= read;
+            }
+        }
+    }
+
+    private static boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.equals("*") || trimmed.equals(etag) || trimmed.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
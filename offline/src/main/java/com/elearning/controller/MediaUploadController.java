@@ -0,0 +1,136 @@
+package com.elearning.controller;
+
+import com.elearning.dto.MessageResponse;
+import com.elearning.entity.MediaUpload;
+import com.elearning.entity.User;
+import com.elearning.service.MediaStorageService;
+import com.elearning.service.MediaUploadService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+// tus 1.0 core protocol plus the creation and termination extensions, so stock tus clients can upload
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/media/uploads")
+public class MediaUploadController {
+
+    private static final String TUS_RESUMABLE = "Tus-Resumable";
+    private static final String TUS_VERSION = "1.0.0";
+    private static final String UPLOAD_OFFSET = "Upload-Offset";
+    private static final String UPLOAD_LENGTH = "Upload-Length";
+    private static final String MEDIA_URL = "X-Media-Url";
+
+    @Autowired
+    private MediaUploadService mediaUploadService;
+
+    @Autowired
+    private MediaStorageService mediaStorageService;
+
+    @RequestMapping(method = RequestMethod.OPTIONS)
+    public ResponseEntity<Void> options() {
+        return ResponseEntity.noContent()
+                .header(TUS_RESUMABLE, TUS_VERSION)
+                .header("Tus-Version", TUS_VERSION)
+                .header("Tus-Max-Size", String.valueOf(mediaUploadService.getMaxUploadBytes()))
+                .header("Tus-Extension", "creation,termination")
+                .build();
+    }
+
+    // Upload-Metadata may carry filename, filetype and lessonId; a lesson gets the file attached on completion
+    @PostMapping
+    @PreAuthorize("hasRole('TEACHER')")
+    public ResponseEntity<?> createUpload(@RequestHeader(UPLOAD_LENGTH) long uploadLength,
+                                          @RequestHeader(value = "Upload-Metadata", required = false) String uploadMetadata,
+                                          Authentication authentication) {
+        try {
+            User user = (User) authentication.getPrincipal();
+            Map<String, String> metadata = parseMetadata(uploadMetadata);
+            String lessonId = metadata.get("lessonId");
+            MediaUpload upload = mediaUploadService.createUpload(uploadLength, metadata.get("filetype"),
+                    metadata.get("filename"), lessonId != null ? Long.valueOf(lessonId) : null, user.getId());
+            return ResponseEntity.created(ServletUriComponentsBuilder.fromCurrentRequest()
+                            .path("/{id}").buildAndExpand(upload.getId()).toUri())
+                    .header(TUS_RESUMABLE, TUS_VERSION)
+                    .header(UPLOAD_OFFSET, "0")
+                    .build();
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .header(TUS_RESUMABLE, TUS_VERSION)
+                    .body(new MessageResponse("Error creating upload: " + e.getMessage(), false));
+        }
+    }
+
+    @RequestMapping(value = "/{id}", method = RequestMethod.HEAD)
+    @PreAuthorize("hasRole('TEACHER')")
+    public ResponseEntity<Void> getOffset(@PathVariable String id, Authentication authentication) {
+        User user = (User) authentication.getPrincipal();
+        MediaUpload upload = mediaUploadService.getUpload(id, user.getId());
+        if (upload == null) {
+            return ResponseEntity.notFound().header(TUS_RESUMABLE, TUS_VERSION).build();
+        }
+        return ResponseEntity.ok()
+                .header(TUS_RESUMABLE, TUS_VERSION)
+                .header(UPLOAD_OFFSET, String.valueOf(upload.getUploadOffset()))
+                .header(UPLOAD_LENGTH, String.valueOf(upload.getUploadLength()))
+                .cacheControl(CacheControl.noStore())
+                .build();
+    }
+
+    // The body is read straight off the request stream; nothing is buffered per chunk beyond a fixed buffer
+    @PatchMapping(value = "/{id}", consumes = "application/offset+octet-stream")
+    @PreAuthorize("hasRole('TEACHER')")
+    public ResponseEntity<Void> appendChunk(@PathVariable String id,
+                                            @RequestHeader(UPLOAD_OFFSET) long offset,
+                                            HttpServletRequest request,
+                                            Authentication authentication) throws IOException {
+        User user = (User) authentication.getPrincipal();
+        MediaUpload upload = mediaUploadService.appendChunk(id, user.getId(), offset, request.getInputStream());
+        if (upload == null) {
+            return ResponseEntity.notFound().header(TUS_RESUMABLE, TUS_VERSION).build();
+        }
+        ResponseEntity.HeadersBuilder<?> response = ResponseEntity.noContent()
+                .header(TUS_RESUMABLE, TUS_VERSION)
+                .header(UPLOAD_OFFSET, String.valueOf(upload.getUploadOffset()));
+        if (upload.getAsset() != null) {
+            response.header(MEDIA_URL, mediaStorageService.urlFor(upload.getAsset()));
+        }
+        return response.build();
+    }
+
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasRole('TEACHER')")
+    public ResponseEntity<Void> cancelUpload(@PathVariable String id, Authentication authentication) throws IOException {
+        User user = (User) authentication.getPrincipal();
+        HttpStatus status = mediaUploadService.cancelUpload(id, user.getId()) ? HttpStatus.NO_CONTENT : HttpStatus.NOT_FOUND;
+        return ResponseEntity.status(status).header(TUS_RESUMABLE, TUS_VERSION).build();
+    }
+
+    // "key base64value,key base64value"; keys without a value are flags and are ignored here
+    private static Map<String, String> parseMetadata(String header) {
+        Map<String, String> metadata = new HashMap<>();
+        if (header == null || header.isBlank()) {
+            return metadata;
+        }
+        for (String pair : header.split(",")) {
+            String[] parts = pair.trim().split(" ", 2);
+            if (parts.length == 2) {
+                metadata.put(parts[0], new String(Base64.getDecoder().decode(parts[1].trim()), StandardCharsets.UTF_8));
+            }
+        }
+        return metadata;
+    }
+}
@@ -1,20 +1,29 @@
 package com.elearning.controller;
 
+import com.elearning.dto.ContentVersion;
+import com.elearning.dto.BatchQuizSubmissionRequest;
 import com.elearning.dto.MessageResponse;
+import com.elearning.dto.QuizAnswerResult;
 import com.elearning.dto.QuizSubmissionRequest;
 import com.elearning.entity.Quiz;
 import com.elearning.entity.QuizResult;
+import com.elearning.entity.QuizRollup;
 import com.elearning.entity.User;
+import com.elearning.service.QuizIngestionService;
 import com.elearning.service.QuizService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import jakarta.validation.Valid;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
@@ -24,23 +33,41 @@ public class QuizController {
     @Autowired
     private QuizService quizService;
 
+    @Autowired
+    private QuizIngestionService quizIngestionService;
+
     @GetMapping("/lesson/{lessonId}")
     @PreAuthorize("hasRole('STUDENT') or hasRole('TEACHER')")
-    public ResponseEntity<List<Quiz>> getQuizzesByLesson(@PathVariable Long lessonId) {
+    public ResponseEntity<List<Quiz>> getQuizzesByLesson(@PathVariable Long lessonId, WebRequest webRequest) {
+        ContentVersion version = quizService.getQuizzesVersionByLesson(lessonId);
+        if (webRequest.checkNotModified(version.getEtag(), version.getLastModifiedMillis())) {
+            return null;
+        }
+
         List<Quiz> quizzes = quizService.getQuizzesByLesson(lessonId);
         return ResponseEntity.ok(quizzes);
     }
 
     @GetMapping("/course/{courseId}")
     @PreAuthorize("hasRole('STUDENT') or hasRole('TEACHER')")
-    public ResponseEntity<List<Quiz>> getQuizzesByCourse(@PathVariable Long courseId) {
+    public ResponseEntity<List<Quiz>> getQuizzesByCourse(@PathVariable Long courseId, WebRequest webRequest) {
+        ContentVersion version = quizService.getQuizzesVersionByCourse(courseId);
+        if (webRequest.checkNotModified(version.getEtag(), version.getLastModifiedMillis())) {
+            return null;
+        }
+
         List<Quiz> quizzes = quizService.getQuizzesByCourse(courseId);
         return ResponseEntity.ok(quizzes);
     }
 
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('STUDENT') or hasRole('TEACHER')")
-    public ResponseEntity<?> getQuizById(@PathVariable Long id) {
+    public ResponseEntity<?> getQuizById(@PathVariable Long id, WebRequest webRequest) {
+        ContentVersion version = quizService.getQuizVersion(id);
+        if (version.getCount() > 0 && webRequest.checkNotModified(version.getEtag(), version.getLastModifiedMillis())) {
+            return null;
+        }
+
         Optional<Quiz> quiz = quizService.getQuizById(id);
         if (quiz.isPresent()) {
             return ResponseEntity.ok(quiz.get());
@@ -89,38 +116,66 @@ public class QuizController {
         }
     }
 
+    // Grading may run on the grading pool; the request thread is released until the result is ready.
+    // With an Idempotency-Key the result is acknowledged once journaled and written to the database in batches.
     @PostMapping("/submit")
     @PreAuthorize("hasRole('STUDENT')")
-    public ResponseEntity<?> submitQuiz(@Valid @RequestBody QuizSubmissionRequest submission, 
-                                      Authentication authentication) {
-        try {
-            User user = (User) authentication.getPrincipal();
-            QuizResult result = quizService.submitQuizAnswer(
-                submission.getQuizId(), 
-                user.getId(), 
-                submission.getUserAnswer(), 
-                submission.getTimeTakenSeconds()
-            );
-            return ResponseEntity.ok(new MessageResponse("Quiz submitted successfully!", true, result));
-        } catch (Exception e) {
-            return ResponseEntity.badRequest()
-                    .body(new MessageResponse("Error submitting quiz: " + e.getMessage(), false));
+    public CompletableFuture<ResponseEntity<?>> submitQuiz(@Valid @RequestBody QuizSubmissionRequest submission,
+                                                          @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                                          Authentication authentication) {
+        User user = (User) authentication.getPrincipal();
+        if (idempotencyKey != null && quizIngestionService.isEnabled()) {
+            return quizIngestionService.ingest(submission.getQuizId(), user.getId(), submission.getUserAnswer(),
+                            submission.getTimeTakenSeconds(), idempotencyKey)
+                    .<ResponseEntity<?>>thenApply(result -> ResponseEntity
+                            .status(QuizAnswerResult.ACCEPTED.equals(result.getStatus()) ? HttpStatus.ACCEPTED : HttpStatus.OK)
+                            .body(new MessageResponse("Quiz submitted successfully!", true, result)))
+                    .exceptionally(e -> ResponseEntity.badRequest()
+                            .body(new MessageResponse("Error submitting quiz: " + causeOf(e).getMessage(), false)));
         }
+        return quizService.gradeQuizAnswer(submission.getQuizId(), user.getId(), submission.getUserAnswer())
+                .<ResponseEntity<?>>thenApply(isCorrect -> {
+                    QuizResult result = quizService.submitQuizAnswer(
+                        submission.getQuizId(),
+                        user.getId(),
+                        submission.getUserAnswer(),
+                        submission.getTimeTakenSeconds(),
+                        isCorrect
+                    );
+                    return ResponseEntity.ok(new MessageResponse("Quiz submitted successfully!", true, result));
+                })
+                .exceptionally(e -> ResponseEntity.badRequest()
+                        .body(new MessageResponse("Error submitting quiz: " + causeOf(e).getMessage(), false)));
+    }
+
+    // All answers of a lesson in one round trip; each answer gets its own status in the result list
+    @PostMapping("/submit/batch")
+    @PreAuthorize("hasRole('STUDENT')")
+    public CompletableFuture<ResponseEntity<?>> submitQuizBatch(@Valid @RequestBody BatchQuizSubmissionRequest submission,
+                                                               Authentication authentication) {
+        User user = (User) authentication.getPrincipal();
+        return quizService.submitQuizAnswers(submission.getAnswers(), user.getId())
+                .<ResponseEntity<?>>thenApply(results ->
+                        ResponseEntity.ok(new MessageResponse("Quiz answers submitted successfully!", true, results)))
+                .exceptionally(e -> ResponseEntity.badRequest()
+                        .body(new MessageResponse("Error submitting quiz answers: " + causeOf(e).getMessage(), false)));
     }
 
     @GetMapping("/results/my")
     @PreAuthorize("hasRole('STUDENT')")
-    public ResponseEntity<List<QuizResult>> getMyQuizResults(Authentication authentication) {
+    public ResponseEntity<List<QuizResult>> getMyQuizResults(@RequestParam(required = false) String cursor,
+                                                             @RequestParam(required = false) Integer limit,
+                                                             Authentication authentication) {
         User user = (User) authentication.getPrincipal();
-        List<QuizResult> results = quizService.getQuizResultsByStudent(user.getId());
-        return ResponseEntity.ok(results);
+        return quizService.getQuizResultsByStudent(user.getId(), cursor, limit).toResponse();
     }
 
     @GetMapping("/results/course/{courseId}")
     @PreAuthorize("hasRole('TEACHER')")
-    public ResponseEntity<List<QuizResult>> getQuizResultsByCourse(@PathVariable Long courseId) {
-        List<QuizResult> results = quizService.getQuizResultsByCourse(courseId);
-        return ResponseEntity.ok(results);
+    public ResponseEntity<List<QuizResult>> getQuizResultsByCourse(@PathVariable Long courseId,
+                                                                   @RequestParam(required = false) String cursor,
+                                                                   @RequestParam(required = false) Integer limit) {
+        return quizService.getQuizResultsByCourse(courseId, cursor, limit).toResponse();
     }
 
     @GetMapping("/results/my/course/{courseId}")
@@ -147,13 +202,12 @@ public class QuizController {
     @PreAuthorize("hasRole('STUDENT')")
     public ResponseEntity<?> getMyQuizStats(@PathVariable Long courseId, Authentication authentication) {
         User user = (User) authentication.getPrincipal();
-        Double averageScore = quizService.getAverageScoreByStudentAndCourse(user.getId(), courseId);
-        long correctAnswers = quizService.getCorrectAnswersCount(user.getId(), courseId);
-        long totalAnswers = quizService.getTotalAnswersCount(user.getId(), courseId);
-        
-        final Double avgScore = averageScore;
-        final long correctAns = correctAnswers;
-        final long totalAns = totalAnswers;
+        Optional<QuizRollup> rollup = quizService.getQuizRollup(user.getId(), courseId);
+
+        final Double avgScore = rollup.filter(r -> r.getAnswerCount() > 0)
+                .map(r -> (double) r.getPointsSum() / r.getAnswerCount()).orElse(null);
+        final long correctAns = rollup.map(QuizRollup::getCorrectCount).orElse(0L);
+        final long totalAns = rollup.map(QuizRollup::getAnswerCount).orElse(0L);
 
         return ResponseEntity.ok(new MessageResponse("Quiz statistics retrieved successfully!", true,
             new Object() {
@@ -184,4 +238,8 @@ public class QuizController {
         List<Quiz> quizzes = quizService.getQuizzesByType(type);
         return ResponseEntity.ok(quizzes);
     }
+
+    private static Throwable causeOf(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
 }
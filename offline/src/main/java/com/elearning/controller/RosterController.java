@@ -0,0 +1,33 @@
+package com.elearning.controller;
+
+import com.elearning.service.RosterImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/teacher/roster")
+public class RosterController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    @Autowired
+    private RosterImportService rosterImportService;
+
+    // Accepts a CSV (username,email,password,firstName,lastName) or JSON array roster and streams
+    // back one result line per row followed by a summary line
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_JSON_VALUE})
+    @PreAuthorize("hasRole('TEACHER')")
+    public ResponseEntity<StreamingResponseBody> importRoster(HttpServletRequest request) {
+        boolean json = MediaType.parseMediaType(request.getContentType()).isCompatibleWith(MediaType.APPLICATION_JSON);
+        StreamingResponseBody body = output -> rosterImportService.importRoster(request.getInputStream(), json, output);
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .body(body);
+    }
+}
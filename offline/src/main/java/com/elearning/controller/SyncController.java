@@ -0,0 +1,29 @@
+package com.elearning.controller;
+
+import com.elearning.dto.SyncChangesResponse;
+import com.elearning.entity.User;
+import com.elearning.service.SyncService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/sync")
+public class SyncController {
+
+    @Autowired
+    private SyncService syncService;
+
+    // Content changed after the given version; start from 0 and keep passing back the returned version
+    @GetMapping("/changes")
+    @PreAuthorize("hasRole('STUDENT') or hasRole('TEACHER')")
+    public ResponseEntity<SyncChangesResponse> getChanges(@RequestParam(defaultValue = "0") long since,
+                                                          @RequestParam(required = false) Integer limit,
+                                                          Authentication authentication) {
+        User user = (User) authentication.getPrincipal();
+        return ResponseEntity.ok(syncService.getChanges(since, limit, user.getId()));
+    }
+}
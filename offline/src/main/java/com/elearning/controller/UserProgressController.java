@@ -1,5 +1,6 @@
 package com.elearning.controller;
 
+import com.elearning.dto.ContentVersion;
 import com.elearning.dto.LessonProgressRequest;
 import com.elearning.dto.MessageResponse;
 import com.elearning.entity.User;
@@ -10,6 +11,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import jakarta.validation.Valid;
 import java.util.List;
@@ -25,16 +27,25 @@ public class UserProgressController {
 
     @GetMapping("/my")
     @PreAuthorize("hasRole('STUDENT')")
-    public ResponseEntity<List<UserProgress>> getMyProgress(Authentication authentication) {
+    public ResponseEntity<List<UserProgress>> getMyProgress(Authentication authentication, WebRequest webRequest) {
         User user = (User) authentication.getPrincipal();
+        if (isStudentProgressNotModified(user.getId(), webRequest)) {
+            return null;
+        }
+
         List<UserProgress> progress = userProgressService.getProgressByStudent(user.getId());
         return ResponseEntity.ok(progress);
     }
 
     @GetMapping("/my/course/{courseId}")
     @PreAuthorize("hasRole('STUDENT')")
-    public ResponseEntity<?> getMyProgressForCourse(@PathVariable Long courseId, Authentication authentication) {
+    public ResponseEntity<?> getMyProgressForCourse(@PathVariable Long courseId, Authentication authentication,
+                                                    WebRequest webRequest) {
         User user = (User) authentication.getPrincipal();
+        if (isStudentProgressNotModified(user.getId(), webRequest)) {
+            return null;
+        }
+
         Optional<UserProgress> progress = userProgressService.getProgressByStudentAndCourse(user.getId(), courseId);
         if (progress.isPresent()) {
             return ResponseEntity.ok(progress.get());
@@ -44,16 +55,24 @@ public class UserProgressController {
 
     @GetMapping("/my/completed")
     @PreAuthorize("hasRole('STUDENT')")
-    public ResponseEntity<List<UserProgress>> getMyCompletedCourses(Authentication authentication) {
+    public ResponseEntity<List<UserProgress>> getMyCompletedCourses(Authentication authentication, WebRequest webRequest) {
         User user = (User) authentication.getPrincipal();
+        if (isStudentProgressNotModified(user.getId(), webRequest)) {
+            return null;
+        }
+
         List<UserProgress> completedCourses = userProgressService.getCompletedCoursesByStudent(user.getId());
         return ResponseEntity.ok(completedCourses);
     }
 
     @GetMapping("/my/in-progress")
     @PreAuthorize("hasRole('STUDENT')")
-    public ResponseEntity<List<UserProgress>> getMyInProgressCourses(Authentication authentication) {
+    public ResponseEntity<List<UserProgress>> getMyInProgressCourses(Authentication authentication, WebRequest webRequest) {
         User user = (User) authentication.getPrincipal();
+        if (isStudentProgressNotModified(user.getId(), webRequest)) {
+            return null;
+        }
+
         List<UserProgress> inProgressCourses = userProgressService.getInProgressCoursesByStudent(user.getId());
         return ResponseEntity.ok(inProgressCourses);
     }
@@ -141,9 +160,16 @@ public class UserProgressController {
     // Teacher endpoints
     @GetMapping("/course/{courseId}")
     @PreAuthorize("hasRole('TEACHER')")
-    public ResponseEntity<List<UserProgress>> getProgressByCourse(@PathVariable Long courseId) {
-        List<UserProgress> progress = userProgressService.getProgressByCourse(courseId);
-        return ResponseEntity.ok(progress);
+    public ResponseEntity<List<UserProgress>> getProgressByCourse(@PathVariable Long courseId,
+                                                                  @RequestParam(required = false) String cursor,
+                                                                  @RequestParam(required = false) Integer limit,
+                                                                  WebRequest webRequest) {
+        ContentVersion version = userProgressService.getProgressVersionByCourse(courseId);
+        if (webRequest.checkNotModified(version.getEtag(), version.getLastModifiedMillis())) {
+            return null;
+        }
+
+        return userProgressService.getProgressByCourse(courseId, cursor, limit).toResponse();
     }
 
     @GetMapping("/course/{courseId}/stats")
@@ -168,8 +194,15 @@ public class UserProgressController {
 
     @GetMapping("/high-performers")
     @PreAuthorize("hasRole('TEACHER')")
-    public ResponseEntity<List<UserProgress>> getHighPerformers(@RequestParam(defaultValue = "80.0") Double minPercentage) {
-        List<UserProgress> highPerformers = userProgressService.getHighPerformers(minPercentage);
-        return ResponseEntity.ok(highPerformers);
+    public ResponseEntity<List<UserProgress>> getHighPerformers(@RequestParam(defaultValue = "80.0") Double minPercentage,
+                                                                @RequestParam(required = false) String cursor,
+                                                                @RequestParam(required = false) Integer limit) {
+        return userProgressService.getHighPerformers(minPercentage, cursor, limit).toResponse();
+    }
+
+    // All of a student's progress views share one validator derived from their progress rows
+    private boolean isStudentProgressNotModified(Long studentId, WebRequest webRequest) {
+        ContentVersion version = userProgressService.getProgressVersionByStudent(studentId);
+        return webRequest.checkNotModified(version.getEtag(), version.getLastModifiedMillis());
     }
 }
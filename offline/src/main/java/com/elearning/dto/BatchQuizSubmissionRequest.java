@@ -0,0 +1,29 @@
+package com.elearning.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class BatchQuizSubmissionRequest {
+
+    @NotEmpty
+    @Size(max = 200)
+    @Valid
+    private List<QuizSubmissionRequest> answers;
+
+    public BatchQuizSubmissionRequest() {}
+
+    public BatchQuizSubmissionRequest(List<QuizSubmissionRequest> answers) {
+        this.answers = answers;
+    }
+
+    public List<QuizSubmissionRequest> getAnswers() {
+        return answers;
+    }
+
+    public void setAnswers(List<QuizSubmissionRequest> answers) {
+        this.answers = answers;
+    }
+}
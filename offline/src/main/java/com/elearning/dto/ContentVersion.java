@@ -0,0 +1,42 @@
+package com.elearning.dto;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+// Cheap validator for a set of rows: row count plus latest modification time
+public class ContentVersion {
+
+    private final long count;
+    private final LocalDateTime lastModified;
+
+    public ContentVersion(Long count, LocalDateTime lastModified) {
+        this.count = count != null ? count : 0;
+        this.lastModified = lastModified;
+    }
+
+    public ContentVersion(Long count, LocalDateTime lastModified, LocalDateTime parentLastModified) {
+        this(count, parentLastModified != null && (lastModified == null || parentLastModified.isAfter(lastModified))
+                ? parentLastModified : lastModified);
+    }
+
+    // Validator for a response built from two row sets, e.g. lessons plus their quizzes
+    public ContentVersion combine(ContentVersion other) {
+        return new ContentVersion(count + other.count, lastModified, other.lastModified);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public LocalDateTime getLastModified() {
+        return lastModified;
+    }
+
+    public long getLastModifiedMillis() {
+        return lastModified != null ? lastModified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : -1;
+    }
+
+    public String getEtag() {
+        return "W/\"" + count + "-" + Math.max(getLastModifiedMillis(), 0) + "\"";
+    }
+}
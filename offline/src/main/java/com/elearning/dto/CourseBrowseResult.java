@@ -0,0 +1,66 @@
+package com.elearning.dto;
+
+import com.elearning.entity.Course;
+
+import java.util.List;
+import java.util.Map;
+
+public class CourseBrowseResult {
+
+    private List<Course> courses;
+    private long total;
+    private Map<String, Long> categories;
+    private Map<String, Long> difficulties;
+    private String nextCursor;
+
+    public CourseBrowseResult() {}
+
+    public CourseBrowseResult(List<Course> courses, long total, Map<String, Long> categories,
+                              Map<String, Long> difficulties, String nextCursor) {
+        this.courses = courses;
+        this.total = total;
+        this.categories = categories;
+        this.difficulties = difficulties;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Course> getCourses() {
+        return courses;
+    }
+
+    public void setCourses(List<Course> courses) {
+        this.courses = courses;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public Map<String, Long> getCategories() {
+        return categories;
+    }
+
+    public void setCategories(Map<String, Long> categories) {
+        this.categories = categories;
+    }
+
+    public Map<String, Long> getDifficulties() {
+        return difficulties;
+    }
+
+    public void setDifficulties(Map<String, Long> difficulties) {
+        this.difficulties = difficulties;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,79 @@
+package com.elearning.dto;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.List;
+import java.util.function.Function;
+
+// One keyset page. The body stays a plain JSON array; the next position travels in headers.
+// On endpoints that predate pagination, paging is opt-in: a request with neither cursor nor limit gets the whole
+// list as before, up to UNPAGED_LIMIT, so existing callers are not cut off at the first page.
+public class CursorPage<T> {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 200;
+    public static final int UNPAGED_LIMIT = 5000;
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private final List<T> items;
+    private final String nextCursor;
+
+    public CursorPage(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    // For endpoints that returned whole lists before they were paginated
+    public static int pageSize(String cursor, Integer limit) {
+        if (cursor == null && (limit == null || limit <= 0)) {
+            return UNPAGED_LIMIT;
+        }
+        return pageSize(limit);
+    }
+
+    // For endpoints that have always been paginated
+    public static int pageSize(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    // Fetches one extra row so the last page doesn't need a trailing empty request
+    public static Pageable lookahead(int pageSize) {
+        return PageRequest.of(0, pageSize + 1);
+    }
+
+    public static <T> CursorPage<T> of(List<T> rows, int pageSize, Function<T, String> cursorOf) {
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, pageSize);
+        return new CursorPage<>(items, cursorOf.apply(items.get(pageSize - 1)));
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public ResponseEntity<List<T>> toResponse() {
+        if (nextCursor == null) {
+            return ResponseEntity.ok(items);
+        }
+        String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("cursor", nextCursor)
+                .toUriString();
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, nextCursor)
+                .header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"")
+                .body(items);
+    }
+}
@@ -0,0 +1,33 @@
+package com.elearning.dto;
+
+import org.springframework.http.MediaType;
+
+import java.nio.charset.StandardCharsets;
+
+// Stored lesson body exactly as persisted: gzip bytes when compressed, plain text otherwise
+public class LessonContent {
+
+    private static final MediaType TEXT_UTF8 = new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8);
+
+    private final String contentHash;
+    private final byte[] contentGzip;
+    private final String storedContent;
+
+    public LessonContent(String contentHash, byte[] contentGzip, String storedContent) {
+        this.contentHash = contentHash;
+        this.contentGzip = contentGzip;
+        this.storedContent = storedContent;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public PreEncodedPayload toPayload() {
+        if (contentGzip != null) {
+            return PreEncodedPayload.fromGzip(contentGzip, contentHash, TEXT_UTF8);
+        }
+        byte[] body = storedContent != null ? storedContent.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        return PreEncodedPayload.identity(body, contentHash, TEXT_UTF8);
+    }
+}
@@ -0,0 +1,84 @@
+package com.elearning.dto;
+
+import com.elearning.entity.Lesson;
+
+// Sidebar view of a lesson: everything except the content and resources bodies
+public class LessonSummary {
+
+    private Long id;
+    private String title;
+    private Lesson.LessonType type;
+    private Integer lessonOrder;
+    private Integer durationMinutes;
+    private long quizCount;
+    private String contentHash;
+
+    public LessonSummary() {}
+
+    public LessonSummary(Long id, String title, Lesson.LessonType type, Integer lessonOrder,
+                         Integer durationMinutes, Long quizCount, String contentHash) {
+        this.id = id;
+        this.title = title;
+        this.type = type;
+        this.lessonOrder = lessonOrder;
+        this.durationMinutes = durationMinutes;
+        this.quizCount = quizCount != null ? quizCount : 0;
+        this.contentHash = contentHash;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public Lesson.LessonType getType() {
+        return type;
+    }
+
+    public void setType(Lesson.LessonType type) {
+        this.type = type;
+    }
+
+    public Integer getLessonOrder() {
+        return lessonOrder;
+    }
+
+    public void setLessonOrder(Integer lessonOrder) {
+        this.lessonOrder = lessonOrder;
+    }
+
+    public Integer getDurationMinutes() {
+        return durationMinutes;
+    }
+
+    public void setDurationMinutes(Integer durationMinutes) {
+        this.durationMinutes = durationMinutes;
+    }
+
+    public long getQuizCount() {
+        return quizCount;
+    }
+
+    public void setQuizCount(long quizCount) {
+        this.quizCount = quizCount;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+}
@@ -0,0 +1,67 @@
+package com.elearning.dto;
+
+import com.elearning.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+// Opaque keyset position: the sort key values of the last row of the previous page
+public class PageCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final String[] parts;
+
+    private PageCursor(String[] parts) {
+        this.parts = parts;
+    }
+
+    public static String encode(Object... values) {
+        StringBuilder raw = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                raw.append(SEPARATOR);
+            }
+            raw.append(values[i]);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PageCursor decode(String cursor, int expectedParts) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != expectedParts) {
+                throw new InvalidCursorException("Invalid page cursor");
+            }
+            return new PageCursor(parts);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid page cursor");
+        }
+    }
+
+    public long getLong(int index) {
+        try {
+            return Long.parseLong(parts[index]);
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException("Invalid page cursor");
+        }
+    }
+
+    public double getDouble(int index) {
+        try {
+            return Double.parseDouble(parts[index]);
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException("Invalid page cursor");
+        }
+    }
+
+    public LocalDateTime getTimestamp(int index) {
+        try {
+            return LocalDateTime.parse(parts[index]);
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException("Invalid page cursor");
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.elearning.dto;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import com.elearning.util.Gzip;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+// Response body serialized and gzipped once, served as bytes with a strong ETag
+public class PreEncodedPayload {
+
+    // Inflated on first use when the payload was built from stored gzip bytes
+    private volatile byte[] body;
+    private final byte[] gzipBody;
+    private final String etag;
+    private final String gzipEtag;
+    private final MediaType contentType;
+
+    private PreEncodedPayload(byte[] body, byte[] gzipBody, String digest, MediaType contentType) {
+        this.body = body;
+        this.gzipBody = gzipBody;
+        this.etag = "\"" + digest + "\"";
+        this.gzipEtag = "\"" + digest + "-gzip\"";
+        this.contentType = contentType;
+    }
+
+    public static PreEncodedPayload json(byte[] body) {
+        return of(body, MediaType.APPLICATION_JSON);
+    }
+
+    public static PreEncodedPayload of(byte[] body, MediaType contentType) {
+        return new PreEncodedPayload(body, Gzip.compress(body), digest(body), contentType);
+    }
+
+    // Already-compressed bytes, e.g. read from storage; only clients without gzip support cost a decompression
+    public static PreEncodedPayload fromGzip(byte[] gzipBody, String digest, MediaType contentType) {
+        return new PreEncodedPayload(null, gzipBody, digest != null ? digest : digest(gzipBody), contentType);
+    }
+
+    // Served uncompressed to everyone
+    public static PreEncodedPayload identity(byte[] body, String digest, MediaType contentType) {
+        return new PreEncodedPayload(body, null, digest != null ? digest : digest(body), contentType);
+    }
+
+    public byte[] getBody() {
+        byte[] decoded = body;
+        if (decoded == null) {
+            decoded = Gzip.decompress(gzipBody);
+            body = decoded;
+        }
+        return decoded;
+    }
+
+    public byte[] getGzipBody() {
+        return gzipBody;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag) || tag.equals(gzipEtag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public ResponseEntity<byte[]> toResponse(String ifNoneMatch, String acceptEncoding) {
+        boolean useGzip = gzipBody != null && acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+        String tag = useGzip ? gzipEtag : etag;
+
+        if (matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(tag)
+                    .cacheControl(CacheControl.noCache())
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(contentType)
+                .eTag(tag)
+                .cacheControl(CacheControl.noCache())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (useGzip) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(gzipBody);
+        }
+        return response.body(getBody());
+    }
+
+    private static String digest(byte[] data) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(data);
+            return HexFormat.of().formatHex(hash, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
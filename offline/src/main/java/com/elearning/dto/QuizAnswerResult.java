@@ -0,0 +1,56 @@
+package com.elearning.dto;
+
+public class QuizAnswerResult {
+
+    public static final String SUBMITTED = "SUBMITTED";
+    // Graded and journaled, waiting for the background writer
+    public static final String ACCEPTED = "ACCEPTED";
+    public static final String ALREADY_SUBMITTED = "ALREADY_SUBMITTED";
+    public static final String NOT_FOUND = "NOT_FOUND";
+
+    private Long quizId;
+    private String status;
+    private Boolean isCorrect;
+    private Integer pointsEarned;
+
+    public QuizAnswerResult() {}
+
+    public QuizAnswerResult(Long quizId, String status, Boolean isCorrect, Integer pointsEarned) {
+        this.quizId = quizId;
+        this.status = status;
+        this.isCorrect = isCorrect;
+        this.pointsEarned = pointsEarned;
+    }
+
+    public Long getQuizId() {
+        return quizId;
+    }
+
+    public void setQuizId(Long quizId) {
+        this.quizId = quizId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Boolean getIsCorrect() {
+        return isCorrect;
+    }
+
+    public void setIsCorrect(Boolean isCorrect) {
+        this.isCorrect = isCorrect;
+    }
+
+    public Integer getPointsEarned() {
+        return pointsEarned;
+    }
+
+    public void setPointsEarned(Integer pointsEarned) {
+        this.pointsEarned = pointsEarned;
+    }
+}
@@ -0,0 +1,44 @@
+package com.elearning.dto;
+
+public class SearchSuggestion {
+
+    public static final String COURSE = "COURSE";
+    public static final String CATEGORY = "CATEGORY";
+    public static final String LESSON = "LESSON";
+
+    private String text;
+    private String type;
+    private Long courseId;
+
+    public SearchSuggestion() {}
+
+    public SearchSuggestion(String text, String type, Long courseId) {
+        this.text = text;
+        this.type = type;
+        this.courseId = courseId;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Long getCourseId() {
+        return courseId;
+    }
+
+    public void setCourseId(Long courseId) {
+        this.courseId = courseId;
+    }
+}
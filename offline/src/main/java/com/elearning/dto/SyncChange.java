@@ -0,0 +1,75 @@
+package com.elearning.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// A changed row: the current entity, or a tombstone (deleted = true, no data). A course tombstone also
+// removes that course's lessons and quizzes on the device.
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SyncChange {
+
+    private long version;
+    private String type;
+    private Long id;
+    private Long courseId;
+    private boolean deleted;
+    private Object data;
+
+    public SyncChange() {}
+
+    public SyncChange(long version, String type, Long id, Long courseId, boolean deleted, Object data) {
+        this.version = version;
+        this.type = type;
+        this.id = id;
+        this.courseId = courseId;
+        this.deleted = deleted;
+        this.data = data;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getCourseId() {
+        return courseId;
+    }
+
+    public void setCourseId(Long courseId) {
+        this.courseId = courseId;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(boolean deleted) {
+        this.deleted = deleted;
+    }
+
+    public Object getData() {
+        return data;
+    }
+
+    public void setData(Object data) {
+        this.data = data;
+    }
+}
@@ -0,0 +1,43 @@
+package com.elearning.dto;
+
+import java.util.List;
+
+public class SyncChangesResponse {
+
+    // Pass back as ?since= on the next call
+    private long version;
+    private boolean hasMore;
+    private List<SyncChange> changes;
+
+    public SyncChangesResponse() {}
+
+    public SyncChangesResponse(long version, boolean hasMore, List<SyncChange> changes) {
+        this.version = version;
+        this.hasMore = hasMore;
+        this.changes = changes;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    public List<SyncChange> getChanges() {
+        return changes;
+    }
+
+    public void setChanges(List<SyncChange> changes) {
+        this.changes = changes;
+    }
+}
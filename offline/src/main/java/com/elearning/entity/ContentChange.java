@@ -0,0 +1,65 @@
+package com.elearning.entity;
+
+import com.elearning.event.ContentChangedEvent;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// One row per content mutation; the id is the sync version handed to offline clients
+@Entity
+@Table(name = "content_changes",
+       indexes = @Index(name = "idx_content_changes_content", columnList = "content_type, content_id"))
+public class ContentChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "content_type", length = 20, nullable = false)
+    private ContentChangedEvent.ContentType contentType;
+
+    @Column(name = "content_id", nullable = false)
+    private Long contentId;
+
+    @Column(name = "course_id")
+    private Long courseId;
+
+    @Column(name = "deleted", nullable = false)
+    private boolean deleted;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+
+    // Constructors
+    public ContentChange() {
+        this.changedAt = LocalDateTime.now();
+    }
+
+    public ContentChange(ContentChangedEvent event) {
+        this();
+        this.contentType = event.getContentType();
+        this.contentId = event.getContentId();
+        this.courseId = event.getCourseId();
+        this.deleted = event.isDeleted();
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public ContentChangedEvent.ContentType getContentType() { return contentType; }
+    public void setContentType(ContentChangedEvent.ContentType contentType) { this.contentType = contentType; }
+
+    public Long getContentId() { return contentId; }
+    public void setContentId(Long contentId) { this.contentId = contentId; }
+
+    public Long getCourseId() { return courseId; }
+    public void setCourseId(Long courseId) { this.courseId = courseId; }
+
+    public boolean isDeleted() { return deleted; }
+    public void setDeleted(boolean deleted) { this.deleted = deleted; }
+
+    public LocalDateTime getChangedAt() { return changedAt; }
+    public void setChangedAt(LocalDateTime changedAt) { this.changedAt = changedAt; }
+}
@@ -4,8 +4,17 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import com.fasterxml.jackson.annotation.JsonIgnore;
-
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.elearning.util.Gzip;
+import com.elearning.util.MediaVariants;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Map;
 import java.util.Set;
 
 @Entity
@@ -20,10 +29,19 @@ public class Lesson {
     @Size(max = 200)
     private String title;
 
-    @NotBlank
-    @Column(columnDefinition = "TEXT")
+    // Decoded lesson body; validated through getContent() and inflated from content_gzip on first access
+    @Transient
     private String content;
 
+    // Plain-text storage; holds an empty marker once the body has moved to content_gzip
+    @Column(name = "content", columnDefinition = "TEXT")
+    @JsonIgnore
+    private String storedContent;
+
+    @Column(name = "content_gzip")
+    @JsonIgnore
+    private byte[] contentGzip;
+
     @Enumerated(EnumType.STRING)
     @Column(length = 20)
     private LessonType type;
@@ -40,6 +58,10 @@ public class Lesson {
     @Column(name = "image_url")
     private String imageUrl;
 
+    // MD5 of the content, lets clients tell whether a cached lesson body is stale without downloading it
+    @Column(name = "content_hash", length = 32)
+    private String contentHash;
+
     @Column(columnDefinition = "TEXT")
     private String resources; // JSON string for additional resources
 
@@ -71,7 +93,7 @@ public class Lesson {
     public Lesson(String title, String content, LessonType type, Integer lessonOrder, Course course) {
         this();
         this.title = title;
-        this.content = content;
+        setContent(content);
         this.type = type;
         this.lessonOrder = lessonOrder;
         this.course = course;
@@ -84,8 +106,35 @@ public class Lesson {
     public String getTitle() { return title; }
     public void setTitle(String title) { this.title = title; }
 
-    public String getContent() { return content; }
-    public void setContent(String content) { this.content = content; }
+    @NotBlank
+    public String getContent() {
+        if (content == null) {
+            content = contentGzip != null ? new String(Gzip.decompress(contentGzip), StandardCharsets.UTF_8) : storedContent;
+        }
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+        this.storedContent = content;
+        this.contentGzip = null;
+    }
+
+    @JsonIgnore
+    public boolean isCompressed() {
+        return contentGzip != null;
+    }
+
+    // Compresses the body once at write time so reads can stream the stored bytes as-is
+    public void compressContent() {
+        String plain = getContent();
+        if (plain != null) {
+            this.contentGzip = Gzip.compress(plain.getBytes(StandardCharsets.UTF_8));
+            this.storedContent = "";
+        }
+    }
+
+    public String getContentHash() { return contentHash; }
 
     public LessonType getType() { return type; }
     public void setType(LessonType type) { this.type = type; }
@@ -102,6 +151,10 @@ public class Lesson {
     public String getImageUrl() { return imageUrl; }
     public void setImageUrl(String imageUrl) { this.imageUrl = imageUrl; }
 
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public Map<Integer, String> getImageVariants() { return MediaVariants.forUrl(imageUrl); }
+
     public String getResources() { return resources; }
     public void setResources(String resources) { this.resources = resources; }
 
@@ -117,9 +170,28 @@ public class Lesson {
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
 
+    @PrePersist
+    public void prePersist() {
+        this.contentHash = hashContent(getContent());
+    }
+
     @PreUpdate
     public void preUpdate() {
         this.updatedAt = LocalDateTime.now();
+        this.contentHash = hashContent(getContent());
+    }
+
+    // Same value as PostgreSQL md5(content), which backfills rows written before the column existed
+    private static String hashContent(String content) {
+        if (content == null) {
+            return null;
+        }
+        try {
+            MessageDigest md5 = MessageDigest.getInstance("MD5");
+            return HexFormat.of().formatHex(md5.digest(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 not available", e);
+        }
     }
 
     // Helper methods
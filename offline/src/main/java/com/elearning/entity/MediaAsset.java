@@ -0,0 +1,76 @@
+package com.elearning.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// Uploaded file in the local media store, addressed by the SHA-256 of its bytes
+@Entity
+@Table(name = "media_assets")
+public class MediaAsset {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "storage_key", length = 64, nullable = false, unique = true)
+    private String storageKey;
+
+    @Column(name = "content_type", length = 100, nullable = false)
+    private String contentType;
+
+    @Column(name = "size_bytes", nullable = false)
+    private long sizeBytes;
+
+    @Column(name = "original_filename")
+    private String originalFilename;
+
+    @Column(name = "uploaded_by")
+    private Long uploadedBy;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // Absolute serving URL, filled in by the controller for upload responses
+    @Transient
+    private String url;
+
+    // Constructors
+    public MediaAsset() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public MediaAsset(String storageKey, String contentType, long sizeBytes, String originalFilename, Long uploadedBy) {
+        this();
+        this.storageKey = storageKey;
+        this.contentType = contentType;
+        this.sizeBytes = sizeBytes;
+        this.originalFilename = originalFilename;
+        this.uploadedBy = uploadedBy;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getStorageKey() { return storageKey; }
+    public void setStorageKey(String storageKey) { this.storageKey = storageKey; }
+
+    public String getContentType() { return contentType; }
+    public void setContentType(String contentType) { this.contentType = contentType; }
+
+    public long getSizeBytes() { return sizeBytes; }
+    public void setSizeBytes(long sizeBytes) { this.sizeBytes = sizeBytes; }
+
+    public String getOriginalFilename() { return originalFilename; }
+    public void setOriginalFilename(String originalFilename) { this.originalFilename = originalFilename; }
+
+    public Long getUploadedBy() { return uploadedBy; }
+    public void setUploadedBy(Long uploadedBy) { this.uploadedBy = uploadedBy; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public String getUrl() { return url; }
+    public void setUrl(String url) { this.url = url; }
+}
@@ -0,0 +1,47 @@
+package com.elearning.entity;
+
+import jakarta.persistence.*;
+
+// Resized variant of a stored image. When the source is already narrower than the width,
+// the derived key is the source key itself.
+@Entity
+@Table(name = "media_derivatives",
+       uniqueConstraints = @UniqueConstraint(name = "uk_media_derivatives_source_width", columnNames = {"source_key", "width"}))
+public class MediaDerivative {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "source_key", length = 64, nullable = false)
+    private String sourceKey;
+
+    @Column(name = "width", nullable = false)
+    private int width;
+
+    @Column(name = "derived_key", length = 64, nullable = false)
+    private String derivedKey;
+
+    // Constructors
+    public MediaDerivative() {
+    }
+
+    public MediaDerivative(String sourceKey, int width, String derivedKey) {
+        this.sourceKey = sourceKey;
+        this.width = width;
+        this.derivedKey = derivedKey;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getSourceKey() { return sourceKey; }
+    public void setSourceKey(String sourceKey) { this.sourceKey = sourceKey; }
+
+    public int getWidth() { return width; }
+    public void setWidth(int width) { this.width = width; }
+
+    public String getDerivedKey() { return derivedKey; }
+    public void setDerivedKey(String derivedKey) { this.derivedKey = derivedKey; }
+}
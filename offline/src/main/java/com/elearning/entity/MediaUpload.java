@@ -0,0 +1,106 @@
+package com.elearning.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// Resumable upload in progress; the bytes received so far live in a part file next to the media store
+@Entity
+@Table(name = "media_uploads")
+public class MediaUpload {
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(name = "uploader_id", nullable = false)
+    private Long uploaderId;
+
+    @Column(name = "lesson_id")
+    private Long lessonId;
+
+    @Column(name = "content_type", length = 100, nullable = false)
+    private String contentType;
+
+    @Column(name = "filename")
+    private String filename;
+
+    @Column(name = "upload_length", nullable = false)
+    private long uploadLength;
+
+    @Column(name = "upload_offset", nullable = false)
+    private long uploadOffset;
+
+    // Content hash, recorded before the part file moves into the media store so a retried completion finds it
+    @Column(name = "storage_key", length = 64)
+    private String storageKey;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    // Set once the last chunk has been stored and the upload row is gone
+    @Transient
+    private MediaAsset asset;
+
+    // Constructors
+    public MediaUpload() {
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    public MediaUpload(String id, Long uploaderId, Long lessonId, String contentType, String filename, long uploadLength) {
+        this();
+        this.id = id;
+        this.uploaderId = uploaderId;
+        this.lessonId = lessonId;
+        this.contentType = contentType;
+        this.filename = filename;
+        this.uploadLength = uploadLength;
+    }
+
+    public boolean isComplete() {
+        return uploadOffset == uploadLength;
+    }
+
+    @PreUpdate
+    public void preUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public Long getUploaderId() { return uploaderId; }
+    public void setUploaderId(Long uploaderId) { this.uploaderId = uploaderId; }
+
+    public Long getLessonId() { return lessonId; }
+    public void setLessonId(Long lessonId) { this.lessonId = lessonId; }
+
+    public String getContentType() { return contentType; }
+    public void setContentType(String contentType) { this.contentType = contentType; }
+
+    public String getFilename() { return filename; }
+    public void setFilename(String filename) { this.filename = filename; }
+
+    public long getUploadLength() { return uploadLength; }
+    public void setUploadLength(long uploadLength) { this.uploadLength = uploadLength; }
+
+    public long getUploadOffset() { return uploadOffset; }
+    public void setUploadOffset(long uploadOffset) { this.uploadOffset = uploadOffset; }
+
+    public String getStorageKey() { return storageKey; }
+    public void setStorageKey(String storageKey) { this.storageKey = storageKey; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    public MediaAsset getAsset() { return asset; }
+    public void setAsset(MediaAsset asset) { this.asset = asset; }
+}
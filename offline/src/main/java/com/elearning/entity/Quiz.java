@@ -1,6 +1,8 @@
 package com.elearning.entity;
 
 import jakarta.persistence.*;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import com.fasterxml.jackson.annotation.JsonIgnore;
@@ -43,6 +45,17 @@ public class Quiz {
     @Column(name = "time_limit_seconds")
     private Integer timeLimitSeconds;
 
+    // DRAWING only: minimum similarity to the reference drawing, in percent; null uses the server default
+    @Min(0)
+    @Max(100)
+    @Column(name = "similarity_threshold")
+    private Integer similarityThreshold;
+
+    // FILL_BLANK only: how correctAnswer is read; null is EXACT, the behaviour quizzes were written against
+    @Enumerated(EnumType.STRING)
+    @Column(name = "answer_matching", length = 20)
+    private AnswerMatching answerMatching;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "lesson_id", nullable = false)
     @JsonIgnore
@@ -62,6 +75,15 @@ public class Quiz {
         MULTIPLE_CHOICE, TRUE_FALSE, FILL_BLANK, DRAWING, MATCHING
     }
 
+    public enum AnswerMatching {
+        // The whole key, trimmed and ignoring case
+        EXACT,
+        // "colour|color" lists accepted answers, ignoring case and repeated spaces
+        ALTERNATIVES,
+        // "/pattern/" is a case-insensitive regular expression the whole answer must match
+        PATTERN
+    }
+
     // Constructors
     public Quiz() {
         this.createdAt = LocalDateTime.now();
@@ -106,6 +128,12 @@ public class Quiz {
     public Integer getTimeLimitSeconds() { return timeLimitSeconds; }
     public void setTimeLimitSeconds(Integer timeLimitSeconds) { this.timeLimitSeconds = timeLimitSeconds; }
 
+    public Integer getSimilarityThreshold() { return similarityThreshold; }
+    public void setSimilarityThreshold(Integer similarityThreshold) { this.similarityThreshold = similarityThreshold; }
+
+    public AnswerMatching getAnswerMatching() { return answerMatching; }
+    public void setAnswerMatching(AnswerMatching answerMatching) { this.answerMatching = answerMatching; }
+
     public Lesson getLesson() { return lesson; }
     public void setLesson(Lesson lesson) { this.lesson = lesson; }
 
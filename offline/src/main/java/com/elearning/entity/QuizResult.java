@@ -6,7 +6,14 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "quiz_results")
+@Table(name = "quiz_results",
+       indexes = @Index(name = "idx_quiz_results_student_submitted", columnList = "student_id, submitted_at, id"),
+       uniqueConstraints = {
+           // One result per student and quiz; submissions insert with ON CONFLICT DO NOTHING against it
+           @UniqueConstraint(name = "uk_quiz_results_student_quiz", columnNames = {"student_id", "quiz_id"}),
+           @UniqueConstraint(name = "uk_quiz_results_student_idempotency_key",
+                             columnNames = {"student_id", "idempotency_key"})
+       })
 public class QuizResult {
 
     @Id
@@ -38,6 +45,11 @@ public class QuizResult {
     @Column(name = "submitted_at")
     private LocalDateTime submittedAt;
 
+    // Client-supplied key of a write-behind submission; replays of the same key are answered from this row
+    @Column(name = "idempotency_key", length = 100)
+    @JsonIgnore
+    private String idempotencyKey;
+
     // Constructors
     public QuizResult() {
         this.submittedAt = LocalDateTime.now();
@@ -77,6 +89,9 @@ public class QuizResult {
     public LocalDateTime getSubmittedAt() { return submittedAt; }
     public void setSubmittedAt(LocalDateTime submittedAt) { this.submittedAt = submittedAt; }
 
+    public String getIdempotencyKey() { return idempotencyKey; }
+    public void setIdempotencyKey(String idempotencyKey) { this.idempotencyKey = idempotencyKey; }
+
     // Helper methods
     public Long getStudentId() {
         return student != null ? student.getId() : null;
@@ -0,0 +1,75 @@
+package com.elearning.entity;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+// Running quiz totals per student and course, kept in step with quiz_results by the statements that insert
+// results, so course statistics are one primary-key read instead of aggregates over the student's history
+@Entity
+@Table(name = "quiz_rollups")
+@IdClass(QuizRollup.Key.class)
+public class QuizRollup {
+
+    @Id
+    @Column(name = "student_id")
+    private Long studentId;
+
+    @Id
+    @Column(name = "course_id")
+    private Long courseId;
+
+    @Column(name = "answer_count", nullable = false)
+    private long answerCount;
+
+    @Column(name = "correct_count", nullable = false)
+    private long correctCount;
+
+    @Column(name = "points_sum", nullable = false)
+    private long pointsSum;
+
+    // Constructors
+    public QuizRollup() {}
+
+    // Getters and Setters
+    public Long getStudentId() { return studentId; }
+    public void setStudentId(Long studentId) { this.studentId = studentId; }
+
+    public Long getCourseId() { return courseId; }
+    public void setCourseId(Long courseId) { this.courseId = courseId; }
+
+    public long getAnswerCount() { return answerCount; }
+    public void setAnswerCount(long answerCount) { this.answerCount = answerCount; }
+
+    public long getCorrectCount() { return correctCount; }
+    public void setCorrectCount(long correctCount) { this.correctCount = correctCount; }
+
+    public long getPointsSum() { return pointsSum; }
+    public void setPointsSum(long pointsSum) { this.pointsSum = pointsSum; }
+
+    public static class Key implements Serializable {
+        private Long studentId;
+        private Long courseId;
+
+        public Key() {}
+
+        public Key(Long studentId, Long courseId) {
+            this.studentId = studentId;
+            this.courseId = courseId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return Objects.equals(studentId, key.studentId) && Objects.equals(courseId, key.courseId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(studentId, courseId);
+        }
+    }
+}
@@ -7,7 +7,11 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "user_progress", 
-       uniqueConstraints = @UniqueConstraint(columnNames = {"student_id", "course_id"}))
+       uniqueConstraints = @UniqueConstraint(columnNames = {"student_id", "course_id"}),
+       indexes = {
+           @Index(name = "idx_user_progress_course_completion", columnList = "course_id, completion_percentage, id"),
+           @Index(name = "idx_user_progress_completion", columnList = "completion_percentage, id")
+       })
 public class UserProgress {
 
     @Id
@@ -0,0 +1,61 @@
+package com.elearning.event;
+
+// Published from the service write paths; listeners react after the surrounding transaction commits
+public class ContentChangedEvent {
+
+    public enum ContentType {
+        COURSE, LESSON, QUIZ
+    }
+
+    private final ContentType contentType;
+    private final Long contentId;
+    private final Long courseId;
+    private final boolean deleted;
+
+    public ContentChangedEvent(ContentType contentType, Long contentId, Long courseId, boolean deleted) {
+        this.contentType = contentType;
+        this.contentId = contentId;
+        this.courseId = courseId;
+        this.deleted = deleted;
+    }
+
+    public static ContentChangedEvent courseSaved(Long courseId) {
+        return new ContentChangedEvent(ContentType.COURSE, courseId, courseId, false);
+    }
+
+    public static ContentChangedEvent courseDeleted(Long courseId) {
+        return new ContentChangedEvent(ContentType.COURSE, courseId, courseId, true);
+    }
+
+    public static ContentChangedEvent lessonSaved(Long lessonId, Long courseId) {
+        return new ContentChangedEvent(ContentType.LESSON, lessonId, courseId, false);
+    }
+
+    public static ContentChangedEvent lessonDeleted(Long lessonId, Long courseId) {
+        return new ContentChangedEvent(ContentType.LESSON, lessonId, courseId, true);
+    }
+
+    public static ContentChangedEvent quizSaved(Long quizId, Long courseId) {
+        return new ContentChangedEvent(ContentType.QUIZ, quizId, courseId, false);
+    }
+
+    public static ContentChangedEvent quizDeleted(Long quizId, Long courseId) {
+        return new ContentChangedEvent(ContentType.QUIZ, quizId, courseId, true);
+    }
+
+    public ContentType getContentType() {
+        return contentType;
+    }
+
+    public Long getContentId() {
+        return contentId;
+    }
+
+    public Long getCourseId() {
+        return courseId;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+}
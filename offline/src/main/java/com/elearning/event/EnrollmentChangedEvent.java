@@ -0,0 +1,15 @@
+package com.elearning.event;
+
+// Published when a student enrolls in or leaves a course, which moves the course's enrollment count
+public class EnrollmentChangedEvent {
+
+    private final Long courseId;
+
+    public EnrollmentChangedEvent(Long courseId) {
+        this.courseId = courseId;
+    }
+
+    public Long getCourseId() {
+        return courseId;
+    }
+}
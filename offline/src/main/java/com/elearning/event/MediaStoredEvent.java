@@ -0,0 +1,17 @@
+package com.elearning.event;
+
+import com.elearning.entity.MediaAsset;
+
+// Published when a teacher's upload lands in the media store; derived files do not raise it
+public class MediaStoredEvent {
+
+    private final MediaAsset asset;
+
+    public MediaStoredEvent(MediaAsset asset) {
+        this.asset = asset;
+    }
+
+    public MediaAsset getAsset() {
+        return asset;
+    }
+}
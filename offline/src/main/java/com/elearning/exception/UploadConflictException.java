@@ -0,0 +1,8 @@
+package com.elearning.exception;
+
+public class UploadConflictException extends RuntimeException {
+
+    public UploadConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,19 @@
+package com.elearning.grading;
+
+import com.elearning.entity.Quiz;
+
+import java.util.Set;
+
+// Grading strategy for one or more quiz types; beans are collected by AnswerEvaluatorRegistry
+public interface AnswerEvaluator {
+
+    Set<Quiz.QuizType> getTypes();
+
+    // Called once per quiz version; the correct answer is never null here
+    AnswerKey compile(Quiz quiz);
+
+    // Keys that decode or transform the answer are matched on the grading pool instead of the request thread
+    default boolean isCpuBound() {
+        return false;
+    }
+}
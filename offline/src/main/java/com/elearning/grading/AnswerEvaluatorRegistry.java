@@ -0,0 +1,113 @@
+package com.elearning.grading;
+
+import com.elearning.entity.Quiz;
+import com.elearning.event.ContentChangedEvent;
+import com.elearning.exception.TooManyRequestsException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Grades answers against compiled answer keys. Keys are cached per quiz and recompiled when the quiz's
+// updatedAt moves, so an edited answer key takes effect on the next submission.
+@Service
+public class AnswerEvaluatorRegistry {
+
+    private final Map<Quiz.QuizType, AnswerEvaluator> evaluators = new EnumMap<>(Quiz.QuizType.class);
+    private final Map<Long, CompiledKey> keys = new ConcurrentHashMap<>();
+    private final ThreadPoolTaskExecutor answerGradingExecutor;
+    private final ThreadPoolTaskExecutor quizResultWriteExecutor;
+    private final long retryAfterSeconds;
+
+    public AnswerEvaluatorRegistry(List<AnswerEvaluator> evaluators,
+                                   @Qualifier("answerGradingExecutor") ThreadPoolTaskExecutor answerGradingExecutor,
+                                   @Qualifier("quizResultWriteExecutor") ThreadPoolTaskExecutor quizResultWriteExecutor,
+                                   @Value("${quiz.grading.retry-after-seconds:2}") long retryAfterSeconds) {
+        this.answerGradingExecutor = answerGradingExecutor;
+        this.quizResultWriteExecutor = quizResultWriteExecutor;
+        this.retryAfterSeconds = retryAfterSeconds;
+        for (AnswerEvaluator evaluator : evaluators) {
+            for (Quiz.QuizType type : evaluator.getTypes()) {
+                AnswerEvaluator previous = this.evaluators.put(type, evaluator);
+                if (previous != null) {
+                    throw new IllegalStateException("Two answer evaluators registered for " + type + ": "
+                            + previous.getClass().getSimpleName() + " and " + evaluator.getClass().getSimpleName());
+                }
+            }
+        }
+    }
+
+    public boolean evaluate(Quiz quiz, String userAnswer) {
+        if (userAnswer == null) {
+            return false;
+        }
+        return answerKey(quiz).matches(userAnswer);
+    }
+
+    // Cheap keys complete inline; CPU-bound ones run on the bounded grading pool, and a full pool is a 429
+    public CompletableFuture<Boolean> evaluateAsync(Quiz quiz, String userAnswer) {
+        AnswerEvaluator evaluator = evaluatorFor(quiz);
+        if (userAnswer == null || evaluator == null || !evaluator.isCpuBound()) {
+            return CompletableFuture.completedFuture(evaluate(quiz, userAnswer));
+        }
+        CompletableFuture<Boolean> grade;
+        try {
+            grade = CompletableFuture.supplyAsync(() -> evaluate(quiz, userAnswer), answerGradingExecutor);
+        } catch (TaskRejectedException e) {
+            throw new TooManyRequestsException("Server is busy grading, please try again shortly", retryAfterSeconds);
+        }
+        // Callers chain inserts and journal syncs on the grade; those belong on the write pool, not on a grader
+        return grade.thenApplyAsync(isCorrect -> isCorrect, quizResultWriteExecutor);
+    }
+
+    @TransactionalEventListener
+    public void onContentChanged(ContentChangedEvent event) {
+        if (event.getContentType() == ContentChangedEvent.ContentType.QUIZ && event.isDeleted()) {
+            keys.remove(event.getContentId());
+        }
+    }
+
+    private AnswerKey answerKey(Quiz quiz) {
+        if (quiz.getId() == null) {
+            return compile(quiz);
+        }
+        CompiledKey cached = keys.get(quiz.getId());
+        if (cached == null || !Objects.equals(cached.updatedAt, quiz.getUpdatedAt())) {
+            cached = new CompiledKey(quiz.getUpdatedAt(), compile(quiz));
+            keys.put(quiz.getId(), cached);
+        }
+        return cached.key;
+    }
+
+    private AnswerKey compile(Quiz quiz) {
+        AnswerEvaluator evaluator = evaluatorFor(quiz);
+        if (evaluator == null || quiz.getCorrectAnswer() == null) {
+            return AnswerKey.NEVER;
+        }
+        return evaluator.compile(quiz);
+    }
+
+    private AnswerEvaluator evaluatorFor(Quiz quiz) {
+        return quiz.getType() != null ? evaluators.get(quiz.getType()) : null;
+    }
+
+    private static class CompiledKey {
+        private final LocalDateTime updatedAt;
+        private final AnswerKey key;
+
+        private CompiledKey(LocalDateTime updatedAt, AnswerKey key) {
+            this.updatedAt = updatedAt;
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.elearning.grading;
+
+// A quiz's correct answer, compiled once into whatever form makes grading a cheap comparison
+@FunctionalInterface
+public interface AnswerKey {
+
+    AnswerKey NEVER = answer -> false;
+
+    boolean matches(String answer);
+}
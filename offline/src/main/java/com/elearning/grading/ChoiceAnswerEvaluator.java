@@ -0,0 +1,33 @@
+package com.elearning.grading;
+
+import com.elearning.entity.Quiz;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+// Single option answers: case-insensitive, ignoring surrounding whitespace, without copying the answer
+@Component
+public class ChoiceAnswerEvaluator implements AnswerEvaluator {
+
+    @Override
+    public Set<Quiz.QuizType> getTypes() {
+        return EnumSet.of(Quiz.QuizType.MULTIPLE_CHOICE, Quiz.QuizType.TRUE_FALSE);
+    }
+
+    @Override
+    public AnswerKey compile(Quiz quiz) {
+        String expected = quiz.getCorrectAnswer().trim();
+        return answer -> {
+            int start = 0;
+            int end = answer.length();
+            while (start < end && Character.isWhitespace(answer.charAt(start))) {
+                start++;
+            }
+            while (end > start && Character.isWhitespace(answer.charAt(end - 1))) {
+                end--;
+            }
+            return end - start == expected.length() && answer.regionMatches(true, start, expected, 0, expected.length());
+        };
+    }
+}
@@ -0,0 +1,176 @@
+package com.elearning.grading;
+
+import com.elearning.entity.Quiz;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Base64;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.Set;
+
+// Drawings are canvas PNG data URLs, so two drawings of the same shape never share bytes. Both are reduced
+// to a 64-bit difference hash (dHash) of the inked area and compared by Hamming distance against the
+// quiz's similarity threshold. The reference hash is computed once per quiz version.
+@Component
+public class DrawingAnswerEvaluator implements AnswerEvaluator {
+
+    private static final String DATA_URL_PREFIX = "data:image/";
+    private static final String BASE64_MARKER = ";base64,";
+    private static final int HASH_WIDTH = 9;
+    private static final int HASH_HEIGHT = 8;
+    private static final int HASH_BITS = 64;
+    // Canvas drawings are at most a few hundred pixels; larger images are subsampled while decoding
+    private static final int MAX_DECODE_SIDE = 512;
+    // Anything lighter than this counts as paper, which absorbs anti-aliasing and off-white backgrounds
+    private static final int INK_LUMINANCE = 224;
+    private static final double MARGIN = 0.05;
+
+    @Value("${quiz.drawing.similarity-threshold:80}")
+    private int defaultThreshold;
+
+    @Value("${quiz.drawing.max-answer-chars:2000000}")
+    private int maxAnswerChars;
+
+    @Override
+    public Set<Quiz.QuizType> getTypes() {
+        return EnumSet.of(Quiz.QuizType.DRAWING);
+    }
+
+    @Override
+    public boolean isCpuBound() {
+        return true;
+    }
+
+    @Override
+    public AnswerKey compile(Quiz quiz) {
+        String expected = quiz.getCorrectAnswer();
+        Long reference = hash(expected);
+        if (reference == null) {
+            // Not a decodable drawing (or a blank one): keep the old exact comparison
+            return expected::equals;
+        }
+        int threshold = quiz.getSimilarityThreshold() != null ? quiz.getSimilarityThreshold() : defaultThreshold;
+        // Matches when at least threshold percent of the bits agree
+        int maxDistance = HASH_BITS - (int) Math.ceil(HASH_BITS * threshold / 100.0);
+        long referenceHash = reference;
+        return answer -> {
+            Long candidate = hash(answer);
+            return candidate != null && Long.bitCount(candidate ^ referenceHash) <= maxDistance;
+        };
+    }
+
+    // Null for anything that is not a decodable, non-blank image data URL
+    private Long hash(String dataUrl) {
+        if (dataUrl.length() > maxAnswerChars || !dataUrl.startsWith(DATA_URL_PREFIX)) {
+            return null;
+        }
+        int marker = dataUrl.indexOf(BASE64_MARKER);
+        if (marker < 0) {
+            return null;
+        }
+        BufferedImage image;
+        try {
+            image = decode(Base64.getDecoder().decode(dataUrl.substring(marker + BASE64_MARKER.length())));
+        } catch (IllegalArgumentException | IOException e) {
+            return null;
+        }
+        return image != null ? differenceHash(luminance(image), image.getWidth(), image.getHeight()) : null;
+    }
+
+    private static BufferedImage decode(byte[] bytes) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(new ByteArrayInputStream(bytes))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, Math.max(reader.getWidth(0), reader.getHeight(0)) / MAX_DECODE_SIDE);
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Grey levels with transparency composited onto white, as the canvas shows it
+    private static int[] luminance(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int[] pixels = image.getRGB(0, 0, width, height, null, 0, width);
+        for (int i = 0; i < pixels.length; i++) {
+            int argb = pixels[i];
+            int alpha = argb >>> 24;
+            int grey = (((argb >> 16) & 0xff) * 299 + ((argb >> 8) & 0xff) * 587 + (argb & 0xff) * 114) / 1000;
+            pixels[i] = (grey * alpha + 255 * (255 - alpha)) / 255;
+        }
+        return pixels;
+    }
+
+    // Crops to the ink so position and size on the canvas do not matter, averages the crop down to 9x8
+    // cells and sets one bit per horizontally adjacent pair that gets brighter
+    private static Long differenceHash(int[] grey, int width, int height) {
+        int minX = width;
+        int minY = height;
+        int maxX = -1;
+        int maxY = -1;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                if (grey[y * width + x] < INK_LUMINANCE) {
+                    minX = Math.min(minX, x);
+                    maxX = Math.max(maxX, x);
+                    minY = Math.min(minY, y);
+                    maxY = Math.max(maxY, y);
+                }
+            }
+        }
+        if (maxX < 0) {
+            return null;
+        }
+        int marginX = (int) ((maxX - minX + 1) * MARGIN);
+        int marginY = (int) ((maxY - minY + 1) * MARGIN);
+        minX = Math.max(0, minX - marginX);
+        minY = Math.max(0, minY - marginY);
+        int cropWidth = Math.min(width, maxX + marginX + 1) - minX;
+        int cropHeight = Math.min(height, maxY + marginY + 1) - minY;
+
+        double[] cells = new double[HASH_WIDTH * HASH_HEIGHT];
+        for (int row = 0; row < HASH_HEIGHT; row++) {
+            int y0 = minY + row * cropHeight / HASH_HEIGHT;
+            int y1 = Math.max(y0 + 1, minY + (row + 1) * cropHeight / HASH_HEIGHT);
+            for (int column = 0; column < HASH_WIDTH; column++) {
+                int x0 = minX + column * cropWidth / HASH_WIDTH;
+                int x1 = Math.max(x0 + 1, minX + (column + 1) * cropWidth / HASH_WIDTH);
+                long sum = 0;
+                for (int y = y0; y < y1; y++) {
+                    for (int x = x0; x < x1; x++) {
+                        sum += grey[y * width + x];
+                    }
+                }
+                cells[row * HASH_WIDTH + column] = (double) sum / ((long) (y1 - y0) * (x1 - x0));
+            }
+        }
+
+        long hash = 0;
+        for (int row = 0; row < HASH_HEIGHT; row++) {
+            for (int column = 0; column < HASH_WIDTH - 1; column++) {
+                hash <<= 1;
+                if (cells[row * HASH_WIDTH + column] < cells[row * HASH_WIDTH + column + 1]) {
+                    hash |= 1;
+                }
+            }
+        }
+        return hash;
+    }
+}
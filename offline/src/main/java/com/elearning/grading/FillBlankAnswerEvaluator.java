@@ -0,0 +1,60 @@
+package com.elearning.grading;
+
+import com.elearning.entity.Quiz;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+// Fill-in answers. By default the answer must equal the key, trimmed and ignoring case, so keys such as
+// "a|b" or "/usr/" mean what they say. A quiz opts in to alternatives or a regular expression through its
+// answerMatching; see Quiz.AnswerMatching.
+@Component
+public class FillBlankAnswerEvaluator implements AnswerEvaluator {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    @Override
+    public Set<Quiz.QuizType> getTypes() {
+        return EnumSet.of(Quiz.QuizType.FILL_BLANK);
+    }
+
+    @Override
+    public AnswerKey compile(Quiz quiz) {
+        String correct = quiz.getCorrectAnswer().trim();
+        Quiz.AnswerMatching matching = quiz.getAnswerMatching() != null
+                ? quiz.getAnswerMatching() : Quiz.AnswerMatching.EXACT;
+        switch (matching) {
+            case PATTERN:
+                if (correct.length() > 2 && correct.startsWith("/") && correct.endsWith("/")) {
+                    try {
+                        Pattern pattern = Pattern.compile(correct.substring(1, correct.length() - 1),
+                                Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+                        return answer -> pattern.matcher(answer.trim()).matches();
+                    } catch (PatternSyntaxException e) {
+                        // Not a valid expression, so the slashes are part of the expected text
+                    }
+                }
+                return answer -> correct.equalsIgnoreCase(answer.trim());
+            case ALTERNATIVES:
+                Set<String> accepted = new HashSet<>();
+                for (String alternative : correct.split("\\|")) {
+                    String normalized = normalize(alternative);
+                    if (!normalized.isEmpty()) {
+                        accepted.add(normalized);
+                    }
+                }
+                return answer -> accepted.contains(normalize(answer));
+            default:
+                return answer -> correct.equalsIgnoreCase(answer.trim());
+        }
+    }
+
+    private static String normalize(String text) {
+        return WHITESPACE.matcher(text.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+}
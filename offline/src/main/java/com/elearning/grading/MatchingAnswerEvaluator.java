@@ -0,0 +1,72 @@
+package com.elearning.grading;
+
+import com.elearning.entity.Quiz;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+// Matching answers are JSON objects of left -> right pairs; key order and letter case do not matter
+@Component
+public class MatchingAnswerEvaluator implements AnswerEvaluator {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Override
+    public Set<Quiz.QuizType> getTypes() {
+        return EnumSet.of(Quiz.QuizType.MATCHING);
+    }
+
+    @Override
+    public AnswerKey compile(Quiz quiz) {
+        Map<String, String> expected = parsePairs(quiz.getCorrectAnswer());
+        if (expected == null) {
+            // Answer key is not JSON; fall back to comparing the raw text
+            String raw = quiz.getCorrectAnswer();
+            return raw::equals;
+        }
+        return answer -> expected.equals(parsePairs(answer));
+    }
+
+    // Accepts {"a": "1"} as well as [["a", "1"], ...]; null when the text is not one of those shapes
+    private Map<String, String> parsePairs(String json) {
+        JsonNode root;
+        try {
+            root = objectMapper.readTree(json);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+        Map<String, String> pairs = new HashMap<>();
+        if (root != null && root.isObject()) {
+            Iterator<Map.Entry<String, JsonNode>> fields = root.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                pairs.put(normalize(field.getKey()), normalize(field.getValue().asText()));
+            }
+            return pairs;
+        }
+        if (root != null && root.isArray()) {
+            for (JsonNode pair : root) {
+                if (!pair.isArray() || pair.size() != 2) {
+                    return null;
+                }
+                pairs.put(normalize(pair.get(0).asText()), normalize(pair.get(1).asText()));
+            }
+            return pairs;
+        }
+        return null;
+    }
+
+    private static String normalize(String text) {
+        return text.trim().toLowerCase(Locale.ROOT);
+    }
+}
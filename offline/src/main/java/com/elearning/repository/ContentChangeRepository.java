@@ -0,0 +1,37 @@
+package com.elearning.repository;
+
+import com.elearning.entity.ContentChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ContentChangeRepository extends JpaRepository<ContentChange, Long> {
+
+    @Query("SELECT c FROM ContentChange c WHERE c.id > :since ORDER BY c.id ASC")
+    List<ContentChange> findChangesSince(@Param("since") Long since, Pageable pageable);
+
+    @Query("SELECT COALESCE(MAX(c.id), 0) FROM ContentChange c")
+    long findCurrentVersion();
+
+    // Keeps only the newest entry per content row; readers past the removed ids still see the survivor
+    @Modifying
+    @Query(value = "DELETE FROM content_changes c USING content_changes n " +
+                   "WHERE n.content_type = c.content_type AND n.content_id = c.content_id AND n.id > c.id",
+           nativeQuery = true)
+    int deleteSupersededChanges();
+
+    // Seeds the log with every existing row so a first sync from version 0 is a full download
+    @Modifying
+    @Query(value = "INSERT INTO content_changes (content_type, content_id, course_id, deleted, changed_at) " +
+                   "SELECT 'COURSE', c.id, c.id, false, NOW() FROM courses c " +
+                   "UNION ALL SELECT 'LESSON', l.id, l.course_id, false, NOW() FROM lessons l " +
+                   "UNION ALL SELECT 'QUIZ', q.id, l.course_id, false, NOW() FROM quizzes q JOIN lessons l ON l.id = q.lesson_id",
+           nativeQuery = true)
+    int seedFromContent();
+}
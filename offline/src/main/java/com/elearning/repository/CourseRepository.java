@@ -2,6 +2,7 @@ package com.elearning.repository;
 
 import com.elearning.entity.Course;
 import com.elearning.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -53,6 +54,18 @@ public interface CourseRepository extends JpaRepository<Course, Long> {
                               @Param("category") String category, 
                               @Param("difficulty") String difficulty);
     
+    @Query("SELECT c FROM Course c WHERE c.isPublished = true AND " +
+           "(:category IS NULL OR c.category = :category) AND " +
+           "(:difficulty IS NULL OR c.difficulty = :difficulty) ORDER BY c.createdAt DESC")
+    List<Course> findPublishedByCategoryAndDifficulty(@Param("category") String category,
+                                                      @Param("difficulty") String difficulty);
+
+    @Query("SELECT c FROM Course c ORDER BY c.id ASC")
+    List<Course> findPage(Pageable pageable);
+
+    @Query("SELECT c FROM Course c WHERE c.id > :id ORDER BY c.id ASC")
+    List<Course> findPageAfter(@Param("id") Long id, Pageable pageable);
+
     @Query("SELECT COUNT(c) FROM Course c WHERE c.isPublished = true")
     long countPublishedCourses();
     
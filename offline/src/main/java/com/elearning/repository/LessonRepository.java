@@ -1,13 +1,22 @@
 package com.elearning.repository;
 
+import com.elearning.dto.ContentVersion;
+import com.elearning.dto.LessonContent;
+import com.elearning.dto.LessonSummary;
 import com.elearning.entity.Lesson;
 import com.elearning.entity.Course;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface LessonRepository extends JpaRepository<Lesson, Long> {
@@ -25,23 +34,70 @@ public interface LessonRepository extends JpaRepository<Lesson, Long> {
     @Query("SELECT l FROM Lesson l WHERE l.course.id = :courseId ORDER BY l.lessonOrder ASC")
     List<Lesson> findByCourseIdOrderByLessonOrderAsc(@Param("courseId") Long courseId);
     
+    @Query("SELECT l.title, l.course.id FROM Lesson l WHERE l.course.isPublished = true")
+    List<Object[]> findPublishedLessonTitles();
+
+    // Only the sidebar columns, with quiz counts from the same grouped query
+    @Query("SELECT new com.elearning.dto.LessonSummary(l.id, l.title, l.type, l.lessonOrder, l.durationMinutes, " +
+           "COUNT(q.id), l.contentHash) FROM Lesson l LEFT JOIN l.quizzes q WHERE l.course.id = :courseId " +
+           "GROUP BY l.id, l.title, l.type, l.lessonOrder, l.durationMinutes, l.contentHash " +
+           "ORDER BY l.lessonOrder ASC")
+    List<LessonSummary> findSummariesByCourseId(@Param("courseId") Long courseId);
+
+    @Modifying
+    @Query("UPDATE Lesson l SET l.contentHash = FUNCTION('md5', l.storedContent) " +
+           "WHERE l.contentHash IS NULL AND l.contentGzip IS NULL AND l.storedContent IS NOT NULL")
+    int backfillContentHashes();
+
+    @Query("SELECT new com.elearning.dto.LessonContent(l.contentHash, l.contentGzip, l.storedContent) " +
+           "FROM Lesson l WHERE l.id = :lessonId")
+    LessonContent findContentById(@Param("lessonId") Long lessonId);
+
+    // Forward-only cursor; must be consumed inside a transaction and closed
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "50"))
+    @Query("SELECT l FROM Lesson l WHERE l.course.id = :courseId ORDER BY l.lessonOrder ASC, l.id ASC")
+    Stream<Lesson> streamByCourseId(@Param("courseId") Long courseId);
+
     @Query("SELECT COUNT(l) FROM Lesson l WHERE l.course.id = :courseId")
     long countByCourseId(@Param("courseId") Long courseId);
+
+    @Query("SELECT new com.elearning.dto.ContentVersion(COUNT(l), MAX(l.updatedAt), MAX(c.updatedAt)) " +
+           "FROM Lesson l JOIN l.course c WHERE c.id = :courseId")
+    ContentVersion findVersionByCourseId(@Param("courseId") Long courseId);
+
+    @Query("SELECT new com.elearning.dto.ContentVersion(COUNT(l), MAX(l.updatedAt), MAX(c.updatedAt)) " +
+           "FROM Lesson l JOIN l.course c WHERE l.id = :lessonId")
+    ContentVersion findVersionById(@Param("lessonId") Long lessonId);
     
-    @Query("SELECT l FROM Lesson l WHERE l.course.id = :courseId AND l.lessonOrder = :order")
-    Lesson findByCourseIdAndLessonOrder(@Param("courseId") Long courseId, @Param("order") Integer order);
-    
-    @Query("SELECT l FROM Lesson l WHERE l.course.id = :courseId AND l.lessonOrder > :currentOrder ORDER BY l.lessonOrder ASC")
-    List<Lesson> findNextLessons(@Param("courseId") Long courseId, @Param("currentOrder") Integer currentOrder);
-    
-    @Query("SELECT l FROM Lesson l WHERE l.course.id = :courseId AND l.lessonOrder < :currentOrder ORDER BY l.lessonOrder DESC")
-    List<Lesson> findPreviousLessons(@Param("courseId") Long courseId, @Param("currentOrder") Integer currentOrder);
-    
+    @Query("SELECT l.id, l.lessonOrder FROM Lesson l WHERE l.course.id = :courseId ORDER BY l.lessonOrder ASC, l.id ASC")
+    List<Object[]> findOrderKeysByCourseId(@Param("courseId") Long courseId);
+
+    // Gives the listed lessons order keys gap, 2*gap, ... in list order in one statement; ids is a
+    // Postgres array literal such as {12,7,9}. Rows already holding their key are left untouched.
+    @Modifying(clearAutomatically = true)
+    @Query(value = "UPDATE lessons l SET lesson_order = v.position * :gap, updated_at = :now " +
+                   "FROM unnest(CAST(:ids AS bigint[])) WITH ORDINALITY AS v(id, position) " +
+                   "WHERE l.id = v.id AND l.course_id = :courseId " +
+                   "AND l.lesson_order IS DISTINCT FROM v.position * :gap",
+           nativeQuery = true)
+    int applyLessonOrder(@Param("courseId") Long courseId, @Param("ids") String ids, @Param("gap") int gap,
+                         @Param("now") LocalDateTime now);
+
+    // Courses where repeated moves have squeezed two neighbouring order keys closer than minGap
+    @Query(value = "SELECT DISTINCT course_id FROM (SELECT course_id, lesson_order - LAG(lesson_order) " +
+                   "OVER (PARTITION BY course_id ORDER BY lesson_order, id) AS gap FROM lessons) g " +
+                   "WHERE g.gap < :minGap",
+           nativeQuery = true)
+    List<Long> findCourseIdsWithCrowdedOrder(@Param("minGap") int minGap);
+
     @Query("SELECT MAX(l.lessonOrder) FROM Lesson l WHERE l.course.id = :courseId")
     Integer findMaxLessonOrderByCourseId(@Param("courseId") Long courseId);
     
+    // Only used until the search index is built. Compressed lessons keep an empty stored_content, so they are
+    // all returned as candidates and their bodies are matched by the caller
     @Query("SELECT l FROM Lesson l WHERE l.course.id = :courseId AND " +
            "(LOWER(l.title) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(l.content) LIKE LOWER(CONCAT('%', :search, '%')))")
-    List<Lesson> searchLessonsInCourse(@Param("courseId") Long courseId, @Param("search") String search);
+           "LOWER(l.storedContent) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "l.contentGzip IS NOT NULL) ORDER BY l.lessonOrder")
+    List<Lesson> searchLessonCandidatesInCourse(@Param("courseId") Long courseId, @Param("search") String search);
 }
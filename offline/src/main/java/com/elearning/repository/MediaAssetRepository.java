@@ -0,0 +1,13 @@
+package com.elearning.repository;
+
+import com.elearning.entity.MediaAsset;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface MediaAssetRepository extends JpaRepository<MediaAsset, Long> {
+
+    Optional<MediaAsset> findByStorageKey(String storageKey);
+}
@@ -0,0 +1,19 @@
+package com.elearning.repository;
+
+import com.elearning.entity.MediaDerivative;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface MediaDerivativeRepository extends JpaRepository<MediaDerivative, Long> {
+
+    List<MediaDerivative> findBySourceKey(String sourceKey);
+
+    // True for resized variants; a source narrower than a width is recorded as its own derivative and is not one
+    @Query("SELECT COUNT(d) > 0 FROM MediaDerivative d WHERE d.derivedKey = :key AND d.sourceKey <> :key")
+    boolean isDerivedKey(@Param("key") String key);
+}
@@ -0,0 +1,24 @@
+package com.elearning.repository;
+
+import com.elearning.entity.MediaUpload;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface MediaUploadRepository extends JpaRepository<MediaUpload, String> {
+
+    List<MediaUpload> findByUpdatedAtBefore(LocalDateTime cutoff);
+
+    // Unlike save(), never inserts: an upload deleted meanwhile stays deleted
+    @Transactional
+    @Modifying
+    @Query("UPDATE MediaUpload u SET u.uploadOffset = :offset, u.updatedAt = :updatedAt WHERE u.id = :id")
+    int updateOffset(@Param("id") String id, @Param("offset") long offset, @Param("updatedAt") LocalDateTime updatedAt);
+}
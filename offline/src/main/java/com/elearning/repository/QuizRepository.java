@@ -1,13 +1,19 @@
 package com.elearning.repository;
 
+import com.elearning.dto.ContentVersion;
 import com.elearning.entity.Quiz;
 import com.elearning.entity.Lesson;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface QuizRepository extends JpaRepository<Quiz, Long> {
@@ -20,12 +26,32 @@ public interface QuizRepository extends JpaRepository<Quiz, Long> {
 
     List<Quiz> findByLesson_IdAndType(Long lessonId, Quiz.QuizType type);
     
+    @Query("SELECT q FROM Quiz q JOIN FETCH q.lesson")
+    List<Quiz> findAllWithLesson();
+
+    @Query("SELECT q FROM Quiz q JOIN FETCH q.lesson WHERE q.id IN :ids")
+    List<Quiz> findAllWithLessonByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Forward-only cursor; must be consumed inside a transaction and closed
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "100"))
+    @Query("SELECT q FROM Quiz q JOIN FETCH q.lesson l WHERE l.course.id = :courseId ORDER BY l.lessonOrder ASC, q.id ASC")
+    Stream<Quiz> streamByCourseId(@Param("courseId") Long courseId);
+
     @Query("SELECT q FROM Quiz q WHERE q.lesson.course.id = :courseId")
     List<Quiz> findByCourseId(@Param("courseId") Long courseId);
     
     @Query("SELECT q FROM Quiz q WHERE q.lesson.course.id = :courseId AND q.type = :type")
     List<Quiz> findByCourseIdAndType(@Param("courseId") Long courseId, @Param("type") Quiz.QuizType type);
     
+    @Query("SELECT new com.elearning.dto.ContentVersion(COUNT(q), MAX(q.updatedAt)) FROM Quiz q WHERE q.lesson.id = :lessonId")
+    ContentVersion findVersionByLessonId(@Param("lessonId") Long lessonId);
+
+    @Query("SELECT new com.elearning.dto.ContentVersion(COUNT(q), MAX(q.updatedAt)) FROM Quiz q WHERE q.lesson.course.id = :courseId")
+    ContentVersion findVersionByCourseId(@Param("courseId") Long courseId);
+
+    @Query("SELECT new com.elearning.dto.ContentVersion(COUNT(q), MAX(q.updatedAt)) FROM Quiz q WHERE q.id = :quizId")
+    ContentVersion findVersionById(@Param("quizId") Long quizId);
+
     @Query("SELECT COUNT(q) FROM Quiz q WHERE q.lesson.id = :lessonId")
     long countByLessonId(@Param("lessonId") Long lessonId);
     
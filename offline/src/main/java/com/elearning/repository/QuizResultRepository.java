@@ -3,11 +3,14 @@ package com.elearning.repository;
 import com.elearning.entity.QuizResult;
 import com.elearning.entity.User;
 import com.elearning.entity.Quiz;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,6 +28,11 @@ public interface QuizResultRepository extends JpaRepository<QuizResult, Long> {
     Optional<QuizResult> findByStudentAndQuiz(User student, Quiz quiz);
 
     Optional<QuizResult> findByStudent_IdAndQuiz_Id(Long studentId, Long quizId);
+
+    Optional<QuizResult> findByStudent_IdAndIdempotencyKey(Long studentId, String idempotencyKey);
+
+    @Query("SELECT qr.quiz.id FROM QuizResult qr WHERE qr.student.id = :studentId AND qr.quiz.id IN :quizIds")
+    List<Long> findSubmittedQuizIds(@Param("studentId") Long studentId, @Param("quizIds") Collection<Long> quizIds);
     
     @Query("SELECT qr FROM QuizResult qr WHERE qr.quiz.lesson.course.id = :courseId AND qr.student.id = :studentId")
     List<QuizResult> findByStudentIdAndCourseId(@Param("studentId") Long studentId, @Param("courseId") Long courseId);
@@ -38,18 +46,24 @@ public interface QuizResultRepository extends JpaRepository<QuizResult, Long> {
     @Query("SELECT qr FROM QuizResult qr WHERE qr.quiz.lesson.id = :lessonId")
     List<QuizResult> findByLessonId(@Param("lessonId") Long lessonId);
     
-    @Query("SELECT AVG(qr.pointsEarned) FROM QuizResult qr WHERE qr.student.id = :studentId AND qr.quiz.lesson.course.id = :courseId")
-    Double findAverageScoreByStudentAndCourse(@Param("studentId") Long studentId, @Param("courseId") Long courseId);
-    
-    @Query("SELECT COUNT(qr) FROM QuizResult qr WHERE qr.student.id = :studentId AND qr.quiz.lesson.course.id = :courseId AND qr.isCorrect = true")
-    long countCorrectAnswersByStudentAndCourse(@Param("studentId") Long studentId, @Param("courseId") Long courseId);
-    
-    @Query("SELECT COUNT(qr) FROM QuizResult qr WHERE qr.student.id = :studentId AND qr.quiz.lesson.course.id = :courseId")
-    long countTotalAnswersByStudentAndCourse(@Param("studentId") Long studentId, @Param("courseId") Long courseId);
-    
-    @Query("SELECT qr FROM QuizResult qr WHERE qr.student.id = :studentId ORDER BY qr.submittedAt DESC")
-    List<QuizResult> findByStudentIdOrderBySubmittedAtDesc(@Param("studentId") Long studentId);
-    
-    @Query("SELECT qr FROM QuizResult qr WHERE qr.quiz.lesson.course.id = :courseId ORDER BY qr.submittedAt DESC")
-    List<QuizResult> findByCourseIdOrderBySubmittedAtDesc(@Param("courseId") Long courseId);
+    // Keyset pages ordered by (submittedAt, id) descending
+    @Query("SELECT qr FROM QuizResult qr WHERE qr.student.id = :studentId ORDER BY qr.submittedAt DESC, qr.id DESC")
+    List<QuizResult> findPageByStudentId(@Param("studentId") Long studentId, Pageable pageable);
+
+    @Query("SELECT qr FROM QuizResult qr WHERE qr.student.id = :studentId AND " +
+           "(qr.submittedAt < :submittedAt OR (qr.submittedAt = :submittedAt AND qr.id < :id)) " +
+           "ORDER BY qr.submittedAt DESC, qr.id DESC")
+    List<QuizResult> findPageByStudentIdAfter(@Param("studentId") Long studentId,
+                                              @Param("submittedAt") LocalDateTime submittedAt,
+                                              @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT qr FROM QuizResult qr WHERE qr.quiz.lesson.course.id = :courseId ORDER BY qr.submittedAt DESC, qr.id DESC")
+    List<QuizResult> findPageByCourseId(@Param("courseId") Long courseId, Pageable pageable);
+
+    @Query("SELECT qr FROM QuizResult qr WHERE qr.quiz.lesson.course.id = :courseId AND " +
+           "(qr.submittedAt < :submittedAt OR (qr.submittedAt = :submittedAt AND qr.id < :id)) " +
+           "ORDER BY qr.submittedAt DESC, qr.id DESC")
+    List<QuizResult> findPageByCourseIdAfter(@Param("courseId") Long courseId,
+                                             @Param("submittedAt") LocalDateTime submittedAt,
+                                             @Param("id") Long id, Pageable pageable);
 }
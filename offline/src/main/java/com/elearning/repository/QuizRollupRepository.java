@@ -0,0 +1,54 @@
+package com.elearning.repository;
+
+import com.elearning.entity.QuizRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface QuizRollupRepository extends JpaRepository<QuizRollup, QuizRollup.Key> {
+
+    // Submissions update the rollups in the statement that inserts the result; waiting for this lock keeps
+    // them from landing between a rebuild's delete and its recount
+    @Modifying
+    @Query(value = "LOCK TABLE quiz_rollups IN EXCLUSIVE MODE", nativeQuery = true)
+    void lockRollups();
+
+    @Query(value = "SELECT COALESCE(SUM(answer_count), 0) FROM quiz_rollups", nativeQuery = true)
+    long sumAnswerCounts();
+
+    @Modifying
+    @Query(value = "DELETE FROM quiz_rollups", nativeQuery = true)
+    int deleteAllRollups();
+
+    @Modifying
+    @Query(value = "DELETE FROM quiz_rollups WHERE course_id = :courseId", nativeQuery = true)
+    int deleteByCourseId(@Param("courseId") Long courseId);
+
+    @Modifying
+    @Query(value = "INSERT INTO quiz_rollups (student_id, course_id, answer_count, correct_count, points_sum) " +
+                   "SELECT r.student_id, l.course_id, COUNT(*), COUNT(*) FILTER (WHERE r.is_correct), " +
+                   "COALESCE(SUM(r.points_earned), 0) " +
+                   "FROM quiz_results r JOIN quizzes q ON q.id = r.quiz_id JOIN lessons l ON l.id = q.lesson_id " +
+                   "GROUP BY r.student_id, l.course_id",
+           nativeQuery = true)
+    int insertAllFromResults();
+
+    // Runs without a table lock, so a submission committed after this statement's snapshot may already have
+    // inserted the row; its count is then added to the recount instead of failing on the key
+    @Modifying
+    @Query(value = "INSERT INTO quiz_rollups (student_id, course_id, answer_count, correct_count, points_sum) " +
+                   "SELECT r.student_id, l.course_id, COUNT(*), COUNT(*) FILTER (WHERE r.is_correct), " +
+                   "COALESCE(SUM(r.points_earned), 0) " +
+                   "FROM quiz_results r JOIN quizzes q ON q.id = r.quiz_id JOIN lessons l ON l.id = q.lesson_id " +
+                   "WHERE l.course_id = :courseId " +
+                   "GROUP BY r.student_id, l.course_id " +
+                   "ON CONFLICT (student_id, course_id) DO UPDATE SET " +
+                   "answer_count = quiz_rollups.answer_count + EXCLUDED.answer_count, " +
+                   "correct_count = quiz_rollups.correct_count + EXCLUDED.correct_count, " +
+                   "points_sum = quiz_rollups.points_sum + EXCLUDED.points_sum",
+           nativeQuery = true)
+    int insertFromResultsForCourse(@Param("courseId") Long courseId);
+}
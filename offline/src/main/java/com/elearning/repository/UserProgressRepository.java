@@ -1,8 +1,10 @@
 package com.elearning.repository;
 
+import com.elearning.dto.ContentVersion;
 import com.elearning.entity.UserProgress;
 import com.elearning.entity.User;
 import com.elearning.entity.Course;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -34,11 +36,28 @@ public interface UserProgressRepository extends JpaRepository<UserProgress, Long
 
     List<UserProgress> findByCourse_IdAndIsCompletedFalse(Long courseId);
     
+    @Query("SELECT up.course.id, COUNT(up) FROM UserProgress up GROUP BY up.course.id")
+    List<Object[]> countEnrollmentsByCourse();
+
+    @Query("SELECT new com.elearning.dto.ContentVersion(COUNT(up), MAX(up.lastUpdated)) FROM UserProgress up WHERE up.student.id = :studentId")
+    ContentVersion findVersionByStudentId(@Param("studentId") Long studentId);
+
+    @Query("SELECT new com.elearning.dto.ContentVersion(COUNT(up), MAX(up.lastUpdated)) FROM UserProgress up WHERE up.course.id = :courseId")
+    ContentVersion findVersionByCourseId(@Param("courseId") Long courseId);
+
     @Query("SELECT up FROM UserProgress up WHERE up.student.id = :studentId ORDER BY up.lastUpdated DESC")
     List<UserProgress> findByStudentIdOrderByLastUpdatedDesc(@Param("studentId") Long studentId);
     
-    @Query("SELECT up FROM UserProgress up WHERE up.course.id = :courseId ORDER BY up.completionPercentage DESC")
-    List<UserProgress> findByCourseIdOrderByCompletionPercentageDesc(@Param("courseId") Long courseId);
+    // Keyset pages ordered by (completionPercentage, id) descending
+    @Query("SELECT up FROM UserProgress up WHERE up.course.id = :courseId ORDER BY up.completionPercentage DESC, up.id DESC")
+    List<UserProgress> findPageByCourseId(@Param("courseId") Long courseId, Pageable pageable);
+
+    @Query("SELECT up FROM UserProgress up WHERE up.course.id = :courseId AND " +
+           "(up.completionPercentage < :percentage OR (up.completionPercentage = :percentage AND up.id < :id)) " +
+           "ORDER BY up.completionPercentage DESC, up.id DESC")
+    List<UserProgress> findPageByCourseIdAfter(@Param("courseId") Long courseId,
+                                               @Param("percentage") Double percentage,
+                                               @Param("id") Long id, Pageable pageable);
     
     @Query("SELECT AVG(up.completionPercentage) FROM UserProgress up WHERE up.student.id = :studentId")
     Double findAverageCompletionPercentageByStudent(@Param("studentId") Long studentId);
@@ -58,6 +77,15 @@ public interface UserProgressRepository extends JpaRepository<UserProgress, Long
     @Query("SELECT COUNT(up) FROM UserProgress up WHERE up.course.id = :courseId")
     long countEnrolledStudentsByCourse(@Param("courseId") Long courseId);
     
-    @Query("SELECT up FROM UserProgress up WHERE up.completionPercentage >= :minPercentage ORDER BY up.completionPercentage DESC")
-    List<UserProgress> findByCompletionPercentageGreaterThanEqual(@Param("minPercentage") Double minPercentage);
+    @Query("SELECT up FROM UserProgress up WHERE up.completionPercentage >= :minPercentage " +
+           "ORDER BY up.completionPercentage DESC, up.id DESC")
+    List<UserProgress> findPageByCompletionPercentageAtLeast(@Param("minPercentage") Double minPercentage,
+                                                             Pageable pageable);
+
+    @Query("SELECT up FROM UserProgress up WHERE up.completionPercentage >= :minPercentage AND " +
+           "(up.completionPercentage < :percentage OR (up.completionPercentage = :percentage AND up.id < :id)) " +
+           "ORDER BY up.completionPercentage DESC, up.id DESC")
+    List<UserProgress> findPageByCompletionPercentageAtLeastAfter(@Param("minPercentage") Double minPercentage,
+                                                                  @Param("percentage") Double percentage,
+                                                                  @Param("id") Long id, Pageable pageable);
 }
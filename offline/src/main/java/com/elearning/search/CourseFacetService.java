@@ -0,0 +1,221 @@
+package com.elearning.search;
+
+import com.elearning.dto.CourseBrowseResult;
+import com.elearning.dto.CursorPage;
+import com.elearning.dto.PageCursor;
+import com.elearning.entity.Course;
+import com.elearning.event.ContentChangedEvent;
+import com.elearning.repository.CourseRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Faceted browse over published courses. Every published course gets a dense ordinal; each category and
+// difficulty value owns a bitset of ordinals, so filters are bitset intersections and counts are cardinalities.
+// Category counts ignore the category filter (and likewise for difficulty) so the UI can offer alternatives.
+@Service
+public class CourseFacetService {
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private final Deque<Integer> freeOrdinals = new ArrayDeque<>();
+    private final Map<String, BitSet> categories = new HashMap<>();
+    private final Map<String, BitSet> difficulties = new HashMap<>();
+    private final BitSet published = new BitSet();
+    private long[] courseIds = new long[64];
+    private int nextOrdinal;
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        ensureBuilt();
+    }
+
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public synchronized void onContentChanged(ContentChangedEvent event) {
+        if (!ready || event.getContentType() != ContentChangedEvent.ContentType.COURSE) {
+            return;
+        }
+        Course course = event.isDeleted() ? null : courseRepository.findById(event.getContentId()).orElse(null);
+        lock.writeLock().lock();
+        try {
+            if (course != null && Boolean.TRUE.equals(course.getIsPublished())) {
+                putLocked(course);
+            } else {
+                removeLocked(event.getContentId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public CourseBrowseResult browse(String search, String category, String difficulty, String cursor, Integer limit) {
+        ensureBuilt();
+        int pageSize = CursorPage.pageSize(limit);
+        long after = cursor == null ? Long.MAX_VALUE : PageCursor.decode(cursor, 1).getLong(0);
+        List<Long> searchHits = search == null || search.isBlank() ? null : matchSearch(search);
+
+        long[] pageIds;
+        long total;
+        Map<String, Long> categoryCounts;
+        Map<String, Long> difficultyCounts;
+        lock.readLock().lock();
+        try {
+            BitSet base = (BitSet) published.clone();
+            if (searchHits != null) {
+                BitSet hits = new BitSet();
+                for (Long id : searchHits) {
+                    Integer ordinal = ordinals.get(id);
+                    if (ordinal != null) {
+                        hits.set(ordinal);
+                    }
+                }
+                base.and(hits);
+            }
+            BitSet byCategory = restrict(base, categories, category);
+            BitSet byDifficulty = restrict(base, difficulties, difficulty);
+
+            categoryCounts = counts(categories, byDifficulty);
+            difficultyCounts = counts(difficulties, byCategory);
+
+            BitSet matching = (BitSet) byCategory.clone();
+            matching.and(byDifficulty);
+            total = matching.cardinality();
+            pageIds = matching.stream().mapToLong(ordinal -> courseIds[ordinal]).filter(id -> id < after).toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // Newest first by id; one lookahead id tells whether another page exists
+        Arrays.sort(pageIds);
+        List<Long> ids = new ArrayList<>(pageSize + 1);
+        for (int i = pageIds.length - 1; i >= 0 && ids.size() <= pageSize; i--) {
+            ids.add(pageIds[i]);
+        }
+        String nextCursor = null;
+        if (ids.size() > pageSize) {
+            ids.remove(pageSize);
+            nextCursor = PageCursor.encode(ids.get(pageSize - 1));
+        }
+        List<Course> courses = SearchIndexService.inRankOrder(ids, courseRepository.findAllById(ids), Course::getId);
+        return new CourseBrowseResult(courses, total, categoryCounts, difficultyCounts, nextCursor);
+    }
+
+    private List<Long> matchSearch(String search) {
+        if (searchIndexService.isReady()) {
+            return searchIndexService.matchPublishedCourses(search);
+        }
+        List<Long> ids = new ArrayList<>();
+        courseRepository.searchPublishedCourses(search).forEach(course -> ids.add(course.getId()));
+        return ids;
+    }
+
+    private void ensureBuilt() {
+        if (ready) {
+            return;
+        }
+        synchronized (this) {
+            if (ready) {
+                return;
+            }
+            TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+            List<Course> courses = readOnly.execute(status -> courseRepository.findPublishedCoursesOrderByCreatedAtDesc());
+            lock.writeLock().lock();
+            try {
+                courses.forEach(this::putLocked);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            ready = true;
+        }
+    }
+
+    private static BitSet restrict(BitSet base, Map<String, BitSet> facet, String value) {
+        BitSet restricted = (BitSet) base.clone();
+        if (value != null && !value.isEmpty()) {
+            BitSet values = facet.get(value);
+            if (values == null) {
+                restricted.clear();
+            } else {
+                restricted.and(values);
+            }
+        }
+        return restricted;
+    }
+
+    private static Map<String, Long> counts(Map<String, BitSet> facet, BitSet filter) {
+        Map<String, Long> counts = new TreeMap<>();
+        BitSet scratch = new BitSet();
+        facet.forEach((value, bits) -> {
+            scratch.clear();
+            scratch.or(bits);
+            scratch.and(filter);
+            counts.put(value, (long) scratch.cardinality());
+        });
+        return counts;
+    }
+
+    private void putLocked(Course course) {
+        removeLocked(course.getId());
+        int ordinal = freeOrdinals.isEmpty() ? nextOrdinal++ : freeOrdinals.pop();
+        if (ordinal >= courseIds.length) {
+            courseIds = Arrays.copyOf(courseIds, courseIds.length * 2);
+        }
+        courseIds[ordinal] = course.getId();
+        ordinals.put(course.getId(), ordinal);
+        published.set(ordinal);
+        if (course.getCategory() != null) {
+            categories.computeIfAbsent(course.getCategory(), v -> new BitSet()).set(ordinal);
+        }
+        if (course.getDifficulty() != null) {
+            difficulties.computeIfAbsent(course.getDifficulty(), v -> new BitSet()).set(ordinal);
+        }
+    }
+
+    private void removeLocked(Long courseId) {
+        Integer ordinal = ordinals.remove(courseId);
+        if (ordinal == null) {
+            return;
+        }
+        published.clear(ordinal);
+        clearOrdinal(categories, ordinal);
+        clearOrdinal(difficulties, ordinal);
+        freeOrdinals.push(ordinal);
+    }
+
+    private static void clearOrdinal(Map<String, BitSet> facet, int ordinal) {
+        facet.values().removeIf(bits -> {
+            bits.clear(ordinal);
+            return bits.isEmpty();
+        });
+    }
+}
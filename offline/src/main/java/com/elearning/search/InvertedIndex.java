@@ -0,0 +1,227 @@
+package com.elearning.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+// In-memory inverted index ranked with BM25. Each document carries a metadata object that search
+// filters run against, so scoped queries (per course, per lesson) never leave memory.
+public class InvertedIndex<M> {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final float TITLE_WEIGHT = 3f;
+    private static final int MIN_PREFIX_LENGTH = 3;
+    private static final int MAX_PREFIX_EXPANSIONS = 32;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    private final Map<Long, IndexedDocument<M>> documents = new HashMap<>();
+    private double totalLength;
+
+    // Adds or replaces a document; title terms count more than body terms so title hits rank first
+    public void put(long id, M metadata, String title, String... body) {
+        Map<String, Float> frequencies = new HashMap<>();
+        float length = addTerms(frequencies, title, TITLE_WEIGHT);
+        for (String text : body) {
+            length += addTerms(frequencies, text, 1f);
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            for (Map.Entry<String, Float> entry : frequencies.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), t -> new HashMap<>()).put(id, entry.getValue());
+            }
+            documents.put(id, new IndexedDocument<>(metadata, frequencies.keySet().toArray(new String[0]), length));
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeIf(Predicate<M> predicate) {
+        lock.writeLock().lock();
+        try {
+            List<Long> matching = new ArrayList<>();
+            documents.forEach((id, document) -> {
+                if (predicate.test(document.metadata)) {
+                    matching.add(id);
+                }
+            });
+            matching.forEach(this::removeLocked);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            totalLength = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Every query term must match; the last one is also expanded as a prefix so results update per keystroke
+    public List<Long> search(String query, Predicate<M> filter, int limit) {
+        List<String> tokens = TextAnalyzer.tokenize(query);
+        List<String> terms = TextAnalyzer.analyze(query);
+        if (terms.isEmpty()) {
+            return new ArrayList<>();
+        }
+        String lastToken = tokens.get(tokens.size() - 1);
+        String prefix = lastToken.length() >= MIN_PREFIX_LENGTH && !TextAnalyzer.analyze(lastToken).isEmpty() ? lastToken : null;
+
+        lock.readLock().lock();
+        try {
+            int documentCount = documents.size();
+            if (documentCount == 0) {
+                return new ArrayList<>();
+            }
+            double averageLength = totalLength / documentCount;
+
+            Map<Long, Double> scores = null;
+            for (int i = 0; i < terms.size(); i++) {
+                Collection<String> group = i == terms.size() - 1 && prefix != null ? expand(terms.get(i), prefix) : List.of(terms.get(i));
+                Map<Long, Double> groupScores = new HashMap<>();
+                for (String term : group) {
+                    Map<Long, Float> termPostings = postings.get(term);
+                    if (termPostings == null) {
+                        continue;
+                    }
+                    double idf = Math.log(1 + (documentCount - termPostings.size() + 0.5) / (termPostings.size() + 0.5));
+                    for (Map.Entry<Long, Float> posting : termPostings.entrySet()) {
+                        Long id = posting.getKey();
+                        if (scores != null && !scores.containsKey(id)) {
+                            continue;
+                        }
+                        double tf = posting.getValue();
+                        double norm = K1 * (1 - B + B * documents.get(id).length / averageLength);
+                        groupScores.merge(id, idf * tf * (K1 + 1) / (tf + norm), Double::sum);
+                    }
+                }
+                if (scores != null) {
+                    for (Map.Entry<Long, Double> entry : groupScores.entrySet()) {
+                        entry.setValue(entry.getValue() + scores.get(entry.getKey()));
+                    }
+                }
+                scores = groupScores;
+                if (scores.isEmpty()) {
+                    return new ArrayList<>();
+                }
+            }
+
+            List<Map.Entry<Long, Double>> ranked = new ArrayList<>();
+            for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                if (filter == null || filter.test(documents.get(entry.getKey()).metadata)) {
+                    ranked.add(entry);
+                }
+            }
+            ranked.sort(Map.Entry.<Long, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+
+            List<Long> ids = new ArrayList<>(Math.min(limit, ranked.size()));
+            for (int i = 0; i < ranked.size() && i < limit; i++) {
+                ids.add(ranked.get(i).getKey());
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Ids of all documents whose metadata matches, without ranking
+    public List<Long> filter(Predicate<M> filter) {
+        lock.readLock().lock();
+        try {
+            List<Long> ids = new ArrayList<>();
+            documents.forEach((id, document) -> {
+                if (filter.test(document.metadata)) {
+                    ids.add(id);
+                }
+            });
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static float addTerms(Map<String, Float> frequencies, String text, float weight) {
+        float length = 0;
+        for (String term : TextAnalyzer.analyze(text)) {
+            frequencies.merge(term, weight, Float::sum);
+            length += weight;
+        }
+        return length;
+    }
+
+    private Collection<String> expand(String term, String rawPrefix) {
+        Set<String> expanded = new HashSet<>();
+        expanded.add(term);
+        for (String candidate : postings.subMap(rawPrefix, true, rawPrefix + Character.MAX_VALUE, false).keySet()) {
+            if (expanded.size() > MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+            expanded.add(candidate);
+        }
+        return expanded;
+    }
+
+    private void removeLocked(long id) {
+        IndexedDocument<M> previous = documents.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (String term : previous.terms) {
+            Map<Long, Float> termPostings = postings.get(term);
+            if (termPostings != null) {
+                termPostings.remove(id);
+                if (termPostings.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        totalLength -= previous.length;
+    }
+
+    private static class IndexedDocument<M> {
+        private final M metadata;
+        private final String[] terms;
+        private final float length;
+
+        private IndexedDocument(M metadata, String[] terms, float length) {
+            this.metadata = metadata;
+            this.terms = terms;
+            this.length = length;
+        }
+    }
+}
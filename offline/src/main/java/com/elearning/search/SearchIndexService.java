@@ -0,0 +1,193 @@
+package com.elearning.search;
+
+import com.elearning.entity.Course;
+import com.elearning.entity.Lesson;
+import com.elearning.entity.Quiz;
+import com.elearning.event.ContentChangedEvent;
+import com.elearning.repository.CourseRepository;
+import com.elearning.repository.LessonRepository;
+import com.elearning.repository.QuizRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+// Serves course, lesson and quiz search from memory. Built once the application is up and kept current
+// from ContentChangedEvent; callers fall back to the database queries until the first build finishes.
+@Service
+public class SearchIndexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchIndexService.class);
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private LessonRepository lessonRepository;
+
+    @Autowired
+    private QuizRepository quizRepository;
+
+    @Value("${search.max-results:200}")
+    private int maxResults;
+
+    private final InvertedIndex<CourseMetadata> courseIndex = new InvertedIndex<>();
+    private final InvertedIndex<LessonMetadata> lessonIndex = new InvertedIndex<>();
+    private final InvertedIndex<QuizMetadata> quizIndex = new InvertedIndex<>();
+
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public synchronized void buildIndexes() {
+        long started = System.currentTimeMillis();
+        courseIndex.clear();
+        lessonIndex.clear();
+        quizIndex.clear();
+        courseRepository.findAll().forEach(this::indexCourse);
+        lessonRepository.findAll().forEach(this::indexLesson);
+        quizRepository.findAllWithLesson().forEach(this::indexQuiz);
+        ready = true;
+        logger.info("Search indexes built in {} ms: {} courses, {} lessons, {} quizzes",
+                System.currentTimeMillis() - started, courseIndex.size(), lessonIndex.size(), quizIndex.size());
+    }
+
+    // Re-reads the changed row after commit; cascaded deletes take their children out of the index too
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public synchronized void onContentChanged(ContentChangedEvent event) {
+        if (!ready) {
+            return;
+        }
+        Long id = event.getContentId();
+        switch (event.getContentType()) {
+            case COURSE:
+                if (event.isDeleted()) {
+                    courseIndex.remove(id);
+                    lessonIndex.removeIf(lesson -> id.equals(lesson.courseId));
+                    quizIndex.removeIf(quiz -> id.equals(quiz.courseId));
+                } else {
+                    courseRepository.findById(id).ifPresentOrElse(this::indexCourse, () -> courseIndex.remove(id));
+                }
+                break;
+            case LESSON:
+                if (event.isDeleted()) {
+                    lessonIndex.remove(id);
+                    quizIndex.removeIf(quiz -> id.equals(quiz.lessonId));
+                } else {
+                    lessonRepository.findById(id).ifPresentOrElse(this::indexLesson, () -> lessonIndex.remove(id));
+                }
+                break;
+            case QUIZ:
+                if (event.isDeleted()) {
+                    quizIndex.remove(id);
+                } else {
+                    quizRepository.findById(id).ifPresentOrElse(this::indexQuiz, () -> quizIndex.remove(id));
+                }
+                break;
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public List<Long> searchPublishedCourses(String query, String category, String difficulty) {
+        return courseIndex.search(query, course -> course.published
+                && (category == null || category.equals(course.category))
+                && (difficulty == null || difficulty.equals(course.difficulty)), maxResults);
+    }
+
+    // Every published match, uncapped, for callers that only need the id set. The ids still come back in
+    // BM25 order like any search; the facet browser only folds them into a bitset.
+    public List<Long> matchPublishedCourses(String query) {
+        return courseIndex.search(query, course -> course.published, Integer.MAX_VALUE);
+    }
+
+    public List<Long> searchLessonsInCourse(Long courseId, String query) {
+        return lessonIndex.search(query, lesson -> courseId.equals(lesson.courseId), maxResults);
+    }
+
+    public List<Long> searchQuizzesInLesson(Long lessonId, String query) {
+        return quizIndex.search(query, quiz -> lessonId.equals(quiz.lessonId), maxResults);
+    }
+
+    public List<Long> searchQuizzesInCourse(Long courseId, String query) {
+        return quizIndex.search(query, quiz -> courseId.equals(quiz.courseId), maxResults);
+    }
+
+    // Puts rows loaded by id back into the ranked order of the search hits
+    public static <T> List<T> inRankOrder(List<Long> ids, List<T> rows, Function<T, Long> idOf) {
+        Map<Long, T> byId = new HashMap<>();
+        for (T row : rows) {
+            byId.put(idOf.apply(row), row);
+        }
+        List<T> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            T row = byId.get(id);
+            if (row != null) {
+                ordered.add(row);
+            }
+        }
+        return ordered;
+    }
+
+    private void indexCourse(Course course) {
+        courseIndex.put(course.getId(),
+                new CourseMetadata(Boolean.TRUE.equals(course.getIsPublished()), course.getCategory(), course.getDifficulty()),
+                course.getTitle(), course.getDescription(), course.getCategory());
+    }
+
+    private void indexLesson(Lesson lesson) {
+        lessonIndex.put(lesson.getId(), new LessonMetadata(lesson.getCourse().getId()),
+                lesson.getTitle(), lesson.getContent());
+    }
+
+    private void indexQuiz(Quiz quiz) {
+        Lesson lesson = quiz.getLesson();
+        quizIndex.put(quiz.getId(), new QuizMetadata(lesson.getId(), lesson.getCourse().getId()),
+                quiz.getTitle(), quiz.getQuestion());
+    }
+
+    private static class CourseMetadata {
+        private final boolean published;
+        private final String category;
+        private final String difficulty;
+
+        private CourseMetadata(boolean published, String category, String difficulty) {
+            this.published = published;
+            this.category = category;
+            this.difficulty = difficulty;
+        }
+    }
+
+    private static class LessonMetadata {
+        private final Long courseId;
+
+        private LessonMetadata(Long courseId) {
+            this.courseId = courseId;
+        }
+    }
+
+    private static class QuizMetadata {
+        private final Long lessonId;
+        private final Long courseId;
+
+        private QuizMetadata(Long lessonId, Long courseId) {
+            this.lessonId = lessonId;
+            this.courseId = courseId;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.elearning.search;
+
+import com.elearning.dto.SearchSuggestion;
+import com.elearning.entity.Course;
+import com.elearning.event.ContentChangedEvent;
+import com.elearning.event.EnrollmentChangedEvent;
+import com.elearning.repository.CourseRepository;
+import com.elearning.repository.LessonRepository;
+import com.elearning.repository.UserProgressRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Catalog autocomplete over published course titles, categories and lesson titles, ranked by enrollment.
+// The trie is rebuilt in the background whenever courses or lessons change, and periodically while enrollments
+// move the ranking; lookups never hit the database.
+@Service
+public class SuggestionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SuggestionService.class);
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private LessonRepository lessonRepository;
+
+    @Autowired
+    private UserProgressRepository userProgressRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier("indexRebuildExecutor")
+    private ThreadPoolTaskExecutor indexRebuildExecutor;
+
+    @Value("${search.suggest.max-results:10}")
+    private int maxResults;
+
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+    private final AtomicBoolean enrollmentsChanged = new AtomicBoolean();
+
+    private volatile SuggestionTrie<SearchSuggestion> trie;
+
+    public List<SearchSuggestion> suggest(String prefix, Integer limit) {
+        SuggestionTrie<SearchSuggestion> current = trie;
+        if (current == null) {
+            return Collections.emptyList();
+        }
+        int size = limit == null || limit <= 0 ? maxResults : Math.min(limit, maxResults);
+        return current.suggest(SuggestionTrie.normalize(prefix), size);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        scheduleRebuild();
+    }
+
+    @TransactionalEventListener
+    public void onContentChanged(ContentChangedEvent event) {
+        if (event.getContentType() != ContentChangedEvent.ContentType.QUIZ) {
+            scheduleRebuild();
+        }
+    }
+
+    // Only marks the weights stale: a rebuild per enrollment would rescan the catalog all through a term's rush
+    @TransactionalEventListener
+    public void onEnrollmentChanged(EnrollmentChangedEvent event) {
+        enrollmentsChanged.set(true);
+    }
+
+    @Scheduled(fixedDelayString = "${search.suggest.enrollment-refresh-ms:300000}")
+    public void refreshEnrollmentWeights() {
+        if (enrollmentsChanged.getAndSet(false)) {
+            scheduleRebuild();
+        }
+    }
+
+    // Bursts of edits collapse into one rebuild; an edit landing mid-rebuild schedules exactly one more
+    private void scheduleRebuild() {
+        if (rebuildScheduled.compareAndSet(false, true)) {
+            indexRebuildExecutor.execute(() -> {
+                rebuildScheduled.set(false);
+                // Any rebuild reads current enrollment counts
+                enrollmentsChanged.set(false);
+                try {
+                    rebuild();
+                } catch (RuntimeException e) {
+                    logger.error("Failed to rebuild catalog suggestions", e);
+                }
+            });
+        }
+    }
+
+    private void rebuild() {
+        long started = System.currentTimeMillis();
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        SuggestionTrie<SearchSuggestion> rebuilt = readOnly.execute(status -> buildTrie());
+        trie = rebuilt;
+        logger.info("Catalog suggestions rebuilt in {} ms ({} trie nodes)",
+                System.currentTimeMillis() - started, rebuilt.nodeCount());
+    }
+
+    private SuggestionTrie<SearchSuggestion> buildTrie() {
+        Map<Long, Long> enrollments = new HashMap<>();
+        for (Object[] row : userProgressRepository.countEnrollmentsByCourse()) {
+            enrollments.put((Long) row[0], (Long) row[1]);
+        }
+
+        SuggestionTrie.Builder<SearchSuggestion> builder = SuggestionTrie.builder(maxResults);
+        Map<String, Long> categoryWeights = new HashMap<>();
+        Map<String, String> categoryNames = new HashMap<>();
+        for (Course course : courseRepository.findPublishedCoursesOrderByCreatedAtDesc()) {
+            long weight = enrollments.getOrDefault(course.getId(), 0L);
+            builder.add(course.getTitle(), new SearchSuggestion(course.getTitle(), SearchSuggestion.COURSE, course.getId()), weight);
+            if (course.getCategory() != null) {
+                String key = SuggestionTrie.normalize(course.getCategory());
+                categoryWeights.merge(key, weight, Long::sum);
+                categoryNames.putIfAbsent(key, course.getCategory());
+            }
+        }
+        categoryWeights.forEach((key, weight) -> builder.add(categoryNames.get(key),
+                new SearchSuggestion(categoryNames.get(key), SearchSuggestion.CATEGORY, null), weight));
+
+        // Common lesson titles ("Introduction") appear once, pointing at the most enrolled course
+        Map<String, Object[]> lessons = new HashMap<>();
+        for (Object[] row : lessonRepository.findPublishedLessonTitles()) {
+            String key = SuggestionTrie.normalize((String) row[0]);
+            long weight = enrollments.getOrDefault((Long) row[1], 0L);
+            Object[] best = lessons.get(key);
+            if (best == null || (Long) best[2] < weight) {
+                lessons.put(key, new Object[] {row[0], row[1], weight});
+            }
+        }
+        for (Object[] lesson : lessons.values()) {
+            builder.add((String) lesson[0], new SearchSuggestion((String) lesson[0], SearchSuggestion.LESSON, (Long) lesson[1]),
+                    (Long) lesson[2]);
+        }
+        return builder.build();
+    }
+}
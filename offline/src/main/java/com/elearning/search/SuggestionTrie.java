@@ -0,0 +1,207 @@
+package com.elearning.search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.TreeMap;
+
+// Immutable prefix trie packed into parallel arrays. Children of a node are stored contiguously and sorted
+// by label, and every node carries its precomputed top suggestions, so a lookup is one binary search per
+// prefix character followed by a slice copy.
+public final class SuggestionTrie<T> {
+
+    private final char[] labels;
+    private final int[] firstChild;
+    private final int[] childCount;
+    private final int[] topOffsets;
+    private final int[] topValues;
+    private final List<T> values;
+
+    private SuggestionTrie(char[] labels, int[] firstChild, int[] childCount,
+                           int[] topOffsets, int[] topValues, List<T> values) {
+        this.labels = labels;
+        this.firstChild = firstChild;
+        this.childCount = childCount;
+        this.topOffsets = topOffsets;
+        this.topValues = topValues;
+        this.values = values;
+    }
+
+    public static <T> Builder<T> builder(int suggestionsPerNode) {
+        return new Builder<>(suggestionsPerNode);
+    }
+
+    public List<T> suggest(String normalizedPrefix, int limit) {
+        int node = 0;
+        for (int i = 0; i < normalizedPrefix.length(); i++) {
+            node = child(node, normalizedPrefix.charAt(i));
+            if (node < 0) {
+                return Collections.emptyList();
+            }
+        }
+        int start = topOffsets[node];
+        int end = Math.min(topOffsets[node + 1], start + limit);
+        List<T> suggestions = new ArrayList<>(end - start);
+        for (int i = start; i < end; i++) {
+            suggestions.add(values.get(topValues[i]));
+        }
+        return suggestions;
+    }
+
+    public int nodeCount() {
+        return labels.length;
+    }
+
+    private int child(int node, char label) {
+        int low = firstChild[node];
+        int high = low + childCount[node] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char midLabel = labels[mid];
+            if (midLabel < label) {
+                low = mid + 1;
+            } else if (midLabel > label) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    // Lower-cases and collapses every run of non letter/digit characters into a single space
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(text.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < text.length(); i++) {
+            char ch = text.charAt(i);
+            if (Character.isLetterOrDigit(ch)) {
+                if (pendingSpace && normalized.length() > 0) {
+                    normalized.append(' ');
+                }
+                pendingSpace = false;
+                normalized.append(Character.toLowerCase(ch));
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return normalized.toString();
+    }
+
+    public static final class Builder<T> {
+        private final int suggestionsPerNode;
+        private final BuildNode root = new BuildNode('\0');
+        private final List<T> values = new ArrayList<>();
+        private final List<Long> weights = new ArrayList<>();
+        private int nodeCount = 1;
+
+        private Builder(int suggestionsPerNode) {
+            this.suggestionsPerNode = suggestionsPerNode;
+        }
+
+        // Indexes the value under the whole phrase and under every word start within it
+        public Builder<T> add(String text, T value, long weight) {
+            String key = normalize(text);
+            if (key.isEmpty()) {
+                return this;
+            }
+            int valueIndex = values.size();
+            values.add(value);
+            weights.add(weight);
+            for (int start = 0; start < key.length(); start++) {
+                if (start == 0 || key.charAt(start - 1) == ' ') {
+                    insert(key, start, valueIndex);
+                }
+            }
+            return this;
+        }
+
+        private void insert(String key, int start, int valueIndex) {
+            BuildNode node = root;
+            node.offer(valueIndex, weights, suggestionsPerNode);
+            for (int i = start; i < key.length(); i++) {
+                char label = key.charAt(i);
+                BuildNode next = node.children.get(label);
+                if (next == null) {
+                    next = new BuildNode(label);
+                    node.children.put(label, next);
+                    nodeCount++;
+                }
+                node = next;
+                node.offer(valueIndex, weights, suggestionsPerNode);
+            }
+        }
+
+        // Breadth-first numbering keeps each node's children in one contiguous, label-sorted run
+        public SuggestionTrie<T> build() {
+            char[] labels = new char[nodeCount];
+            int[] firstChild = new int[nodeCount];
+            int[] childCount = new int[nodeCount];
+            int[] topOffsets = new int[nodeCount + 1];
+            List<BuildNode> ordered = new ArrayList<>(nodeCount);
+
+            Deque<BuildNode> queue = new ArrayDeque<>();
+            queue.add(root);
+            int nextIndex = 1;
+            while (!queue.isEmpty()) {
+                BuildNode node = queue.poll();
+                int index = ordered.size();
+                ordered.add(node);
+                labels[index] = node.label;
+                firstChild[index] = nextIndex;
+                childCount[index] = node.children.size();
+                nextIndex += node.children.size();
+                queue.addAll(node.children.values());
+            }
+
+            int totalTop = 0;
+            for (int i = 0; i < nodeCount; i++) {
+                topOffsets[i] = totalTop;
+                totalTop += ordered.get(i).top.size();
+            }
+            topOffsets[nodeCount] = totalTop;
+            int[] topValues = new int[totalTop];
+            for (int i = 0; i < nodeCount; i++) {
+                List<Integer> top = ordered.get(i).top;
+                for (int j = 0; j < top.size(); j++) {
+                    topValues[topOffsets[i] + j] = top.get(j);
+                }
+            }
+            return new SuggestionTrie<>(labels, firstChild, childCount, topOffsets, topValues, new ArrayList<>(values));
+        }
+    }
+
+    private static final class BuildNode {
+        private final char label;
+        private final TreeMap<Character, BuildNode> children = new TreeMap<>();
+        private final List<Integer> top = new ArrayList<>(2);
+
+        private BuildNode(char label) {
+            this.label = label;
+        }
+
+        // Keeps the heaviest values seen under this node, heaviest first
+        private void offer(int valueIndex, List<Long> weights, int capacity) {
+            if (top.contains(valueIndex)) {
+                return;
+            }
+            long weight = weights.get(valueIndex);
+            int position = top.size();
+            while (position > 0 && weights.get(top.get(position - 1)) < weight) {
+                position--;
+            }
+            if (position >= capacity) {
+                return;
+            }
+            top.add(position, valueIndex);
+            if (top.size() > capacity) {
+                top.remove(top.size() - 1);
+            }
+        }
+    }
+}
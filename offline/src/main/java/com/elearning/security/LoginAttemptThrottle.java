@@ -0,0 +1,81 @@
+package com.elearning.security;
+
+import com.elearning.exception.TooManyRequestsException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+@Component
+public class LoginAttemptThrottle {
+
+    @Value("${security.login-throttle.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${security.login-throttle.window-seconds:300}")
+    private long windowSeconds;
+
+    @Value("${security.login-throttle.max-tracked-users:50000}")
+    private int maxTrackedUsers;
+
+    // Least recently used first; past the cap the oldest window is dropped, so a spray of made-up usernames
+    // costs bounded memory and evicts idle windows before the ones under attack. Guarded by itself.
+    private final Map<String, FailureWindow> failures = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, FailureWindow> eldest) {
+            return size() > maxTrackedUsers;
+        }
+    };
+
+    // Rejects before any hashing work is scheduled once a username has used up its failed attempts
+    public void checkAllowed(String username) {
+        long now = System.currentTimeMillis();
+        synchronized (failures) {
+            FailureWindow window = failures.get(key(username));
+            if (window == null || window.isExpired(now, windowSeconds)) {
+                return;
+            }
+            if (window.count >= maxAttempts) {
+                long retryAfter = Math.max(1, (window.startedAt + windowSeconds * 1000 - now) / 1000);
+                throw new TooManyRequestsException("Too many failed login attempts, please try again later", retryAfter);
+            }
+        }
+    }
+
+    public void recordFailure(String username) {
+        long now = System.currentTimeMillis();
+        synchronized (failures) {
+            FailureWindow window = failures.computeIfAbsent(key(username), k -> new FailureWindow(now));
+            if (window.isExpired(now, windowSeconds)) {
+                window.startedAt = now;
+                window.count = 0;
+            }
+            window.count++;
+        }
+    }
+
+    public void recordSuccess(String username) {
+        synchronized (failures) {
+            failures.remove(key(username));
+        }
+    }
+
+    private String key(String username) {
+        return username == null ? "" : username.toLowerCase(Locale.ROOT);
+    }
+
+    private static class FailureWindow {
+        private long startedAt;
+        private int count;
+
+        private FailureWindow(long startedAt) {
+            this.startedAt = startedAt;
+        }
+
+        private boolean isExpired(long now, long windowSeconds) {
+            return now - startedAt >= windowSeconds * 1000;
+        }
+    }
+}
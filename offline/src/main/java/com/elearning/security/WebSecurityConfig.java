@@ -1,10 +1,12 @@
 package com.elearning.security;
 
 import com.elearning.service.UserDetailsServiceImpl;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
@@ -37,6 +39,9 @@ public class WebSecurityConfig {
     @Value("${cors.allowed-origins}")
     private String allowedOrigins;
 
+    @Value("${security.bcrypt.strength:10}")
+    private int bcryptStrength;
+
     @Bean
     public JwtAuthenticationFilter authenticationJwtTokenFilter() {
         return new JwtAuthenticationFilter();
@@ -47,6 +52,8 @@ public class WebSecurityConfig {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder());
+        // Hashes below the configured BCrypt cost are transparently re-encoded on successful login
+        authProvider.setUserDetailsPasswordService(userDetailsService);
         return authProvider;
     }
 
@@ -57,7 +64,7 @@ public class WebSecurityConfig {
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(bcryptStrength);
     }
 
     @Bean
@@ -67,13 +74,19 @@ public class WebSecurityConfig {
             .exceptionHandling(exception -> exception.authenticationEntryPoint(unauthorizedHandler))
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> 
-                auth.requestMatchers("/auth/**").permitAll()
+                // The original request was authorized; the async dispatch only writes a CompletableFuture's result
+                auth.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                    .requestMatchers("/auth/**").permitAll()
                     .requestMatchers("/courses/public/**").permitAll()
                     .requestMatchers("/health", "/info").permitAll()
+                    .requestMatchers(HttpMethod.GET, "/media/*").permitAll()
+                    .requestMatchers(HttpMethod.HEAD, "/media/*").permitAll()
+                    .requestMatchers("/media/**").hasRole("TEACHER")
                     .requestMatchers("/courses/**").hasAnyRole("STUDENT", "TEACHER")
                     .requestMatchers("/lessons/**").hasAnyRole("STUDENT", "TEACHER")
                     .requestMatchers("/quiz/**").hasAnyRole("STUDENT", "TEACHER")
                     .requestMatchers("/user/progress/**").hasAnyRole("STUDENT", "TEACHER")
+                    .requestMatchers("/sync/**").hasAnyRole("STUDENT", "TEACHER")
                     .requestMatchers("/teacher/**").hasRole("TEACHER")
                     .anyRequest().authenticated()
             );
@@ -88,8 +101,11 @@ public class WebSecurityConfig {
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.setAllowedOriginPatterns(Arrays.asList(allowedOrigins.split(",")));
-        configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+        configuration.setAllowedMethods(Arrays.asList("GET", "HEAD", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(List.of("*"));
+        configuration.setExposedHeaders(List.of("Accept-Ranges", "Content-Range", "ETag", "Last-Modified", "Link", "Location",
+                "Retry-After", "Tus-Resumable", "Tus-Version", "Tus-Max-Size", "Tus-Extension", "Upload-Length",
+                "Upload-Offset", "X-Media-Url", "X-Next-Cursor"));
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L);
 
@@ -0,0 +1,258 @@
+package com.elearning.service;
+
+import com.elearning.dto.ContentVersion;
+import com.elearning.entity.Course;
+import com.elearning.entity.Lesson;
+import com.elearning.entity.Quiz;
+import com.elearning.event.ContentChangedEvent;
+import com.elearning.repository.CourseRepository;
+import com.elearning.repository.LessonRepository;
+import com.elearning.repository.QuizRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+// Offline download of a whole course as gzip-compressed NDJSON: one course line, then every lesson, then
+// every quiz, each as {"type": ..., "data": ...}. Rows are read through forward-only cursors and detached
+// once written, and the finished bytes are kept per course version so repeat downloads skip the database.
+@Service
+public class CourseBundleService {
+
+    public static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private LessonRepository lessonRepository;
+
+    @Autowired
+    private QuizRepository quizRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${course-bundle.cache.max-bytes:67108864}")
+    private long cacheMaxBytes;
+
+    @Value("${course-bundle.cache.max-bundle-bytes:8388608}")
+    private int maxBundleBytes;
+
+    private final Map<Long, CachedBundle> cache = new ConcurrentHashMap<>();
+    private final AtomicLong cachedBytes = new AtomicLong();
+
+    public ResponseEntity<StreamingResponseBody> getBundle(Long courseId, String ifNoneMatch) {
+        Course course = courseRepository.findById(courseId).orElse(null);
+        if (course == null) {
+            return ResponseEntity.notFound().build();
+        }
+        String etag = currentEtag(course);
+        if (etagMatches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CacheControl.noCache()).build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(NDJSON)
+                .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache());
+        CachedBundle cached = cache.get(courseId);
+        if (cached != null && cached.etag.equals(etag)) {
+            return response.contentLength(cached.bytes.length).body(output -> output.write(cached.bytes));
+        }
+        return response.body(output -> writeBundle(courseId, etag, output));
+    }
+
+    @TransactionalEventListener
+    public void onContentChanged(ContentChangedEvent event) {
+        evict(event.getCourseId());
+    }
+
+    // Weak comparison over the header's list, as If-None-Match requires; proxies that recompress the body
+    // often weaken the tag to W/"..." on the way back
+    private static boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Course row plus the lesson and quiz validators; any edit under the course changes it
+    private String currentEtag(Course course) {
+        Long courseId = course.getId();
+        ContentVersion version = lessonRepository.findVersionByCourseId(courseId)
+                .combine(quizRepository.findVersionByCourseId(courseId))
+                .combine(new ContentVersion(1L, course.getUpdatedAt()));
+        return "\"bundle-" + courseId + "-" + version.getCount() + "-" + Math.max(version.getLastModifiedMillis(), 0) + "\"";
+    }
+
+    private void writeBundle(Long courseId, String etag, OutputStream output) throws IOException {
+        CapturingOutputStream capture = new CapturingOutputStream(output, maxBundleBytes);
+        GZIPOutputStream gzip = new GZIPOutputStream(capture, 8192);
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(gzip);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // Let the gzip stream decide when to emit bytes instead of flushing after every row
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        try {
+            readOnly.executeWithoutResult(status -> {
+                Course course = courseRepository.findById(courseId).orElse(null);
+                if (course == null) {
+                    return;
+                }
+                writeLine(writer, generator, "course", course);
+                try (Stream<Lesson> lessons = lessonRepository.streamByCourseId(courseId)) {
+                    lessons.forEach(lesson -> {
+                        writeLine(writer, generator, "lesson", lesson);
+                        entityManager.detach(lesson);
+                    });
+                }
+                try (Stream<Quiz> quizzes = quizRepository.streamByCourseId(courseId)) {
+                    quizzes.forEach(quiz -> {
+                        writeLine(writer, generator, "quiz", quiz);
+                        entityManager.detach(quiz.getLesson());
+                        entityManager.detach(quiz);
+                    });
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        generator.close();
+        gzip.finish();
+        gzip.flush();
+
+        byte[] bytes = capture.getCaptured();
+        if (bytes != null) {
+            store(courseId, new CachedBundle(etag, bytes));
+        }
+    }
+
+    private void writeLine(ObjectWriter writer, JsonGenerator generator, String type, Object data) {
+        try {
+            generator.writeStartObject();
+            generator.writeStringField("type", type);
+            generator.writeFieldName("data");
+            writer.writeValue(generator, data);
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void store(Long courseId, CachedBundle bundle) {
+        if (bundle.bytes.length > cacheMaxBytes) {
+            return;
+        }
+        CachedBundle previous = cache.put(courseId, bundle);
+        cachedBytes.addAndGet(bundle.bytes.length - (previous != null ? previous.bytes.length : 0));
+        Iterator<Map.Entry<Long, CachedBundle>> entries = cache.entrySet().iterator();
+        while (cachedBytes.get() > cacheMaxBytes && entries.hasNext()) {
+            Map.Entry<Long, CachedBundle> entry = entries.next();
+            if (!entry.getKey().equals(courseId)) {
+                evict(entry.getKey());
+            }
+        }
+    }
+
+    private void evict(Long courseId) {
+        CachedBundle removed = cache.remove(courseId);
+        if (removed != null) {
+            cachedBytes.addAndGet(-removed.bytes.length);
+        }
+    }
+
+    private static class CachedBundle {
+        private final String etag;
+        private final byte[] bytes;
+
+        private CachedBundle(String etag, byte[] bytes) {
+            this.etag = etag;
+            this.bytes = bytes;
+        }
+    }
+
+    // Passes bytes through to the response while keeping a copy, abandoned once the bundle outgrows the limit
+    private static class CapturingOutputStream extends FilterOutputStream {
+        private final int limit;
+        private ByteArrayOutputStream copy = new ByteArrayOutputStream();
+
+        private CapturingOutputStream(OutputStream out, int limit) {
+            super(out);
+            this.limit = limit;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            if (copy != null) {
+                copy.write(b);
+                checkLimit();
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            if (copy != null) {
+                copy.write(b, off, len);
+                checkLimit();
+            }
+        }
+
+        private void checkLimit() {
+            if (copy.size() > limit) {
+                copy = null;
+            }
+        }
+
+        private byte[] getCaptured() {
+            return copy != null ? copy.toByteArray() : null;
+        }
+    }
+}
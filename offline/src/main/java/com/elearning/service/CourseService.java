@@ -1,15 +1,28 @@
 package com.elearning.service;
 
+import com.elearning.dto.CursorPage;
+import com.elearning.dto.PageCursor;
+import com.elearning.dto.PreEncodedPayload;
 import com.elearning.entity.Course;
 import com.elearning.entity.User;
+import com.elearning.event.ContentChangedEvent;
 import com.elearning.repository.CourseRepository;
 import com.elearning.repository.UserRepository;
+import com.elearning.search.SearchIndexService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 @Transactional
@@ -21,12 +34,78 @@ public class CourseService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final AtomicLong catalogVersion = new AtomicLong();
+
+    private volatile PublicCatalogSnapshot publicCatalogSnapshot;
+
+    // Served without touching the database until a catalog write commits. A snapshot is only served while its
+    // version is current, so one stored just after an invalidation is never handed out.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public PublicCatalogSnapshot getPublicCatalogSnapshot() {
+        PublicCatalogSnapshot snapshot = publicCatalogSnapshot;
+        if (isCurrent(snapshot)) {
+            return snapshot;
+        }
+
+        synchronized (this) {
+            snapshot = publicCatalogSnapshot;
+            if (!isCurrent(snapshot)) {
+                long version = catalogVersion.get();
+                TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+                readOnly.setReadOnly(true);
+                snapshot = readOnly.execute(status -> buildPublicCatalogSnapshot(version));
+                // A write committed while building leaves this copy stale; the next reader rebuilds
+                publicCatalogSnapshot = snapshot;
+            }
+            return snapshot;
+        }
+    }
+
+    private boolean isCurrent(PublicCatalogSnapshot snapshot) {
+        return snapshot != null && snapshot.getVersion() == catalogVersion.get();
+    }
+
+    private PublicCatalogSnapshot buildPublicCatalogSnapshot(long version) {
+        try {
+            return new PublicCatalogSnapshot(version,
+                    PreEncodedPayload.json(objectMapper.writeValueAsBytes(courseRepository.findPublishedCoursesOrderByCreatedAtDesc())),
+                    PreEncodedPayload.json(objectMapper.writeValueAsBytes(courseRepository.findDistinctCategories())),
+                    PreEncodedPayload.json(objectMapper.writeValueAsBytes(courseRepository.findDistinctDifficulties())));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize public catalog", e);
+        }
+    }
+
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void onContentChanged(ContentChangedEvent event) {
+        if (event.getContentType() == ContentChangedEvent.ContentType.COURSE) {
+            catalogVersion.incrementAndGet();
+        }
+    }
+
     public List<Course> getAllPublishedCourses() {
         return courseRepository.findPublishedCoursesOrderByCreatedAtDesc();
     }
 
-    public List<Course> getAllCourses() {
-        return courseRepository.findAll();
+    public CursorPage<Course> getAllCourses(String cursor, Integer limit) {
+        int pageSize = CursorPage.pageSize(cursor, limit);
+        List<Course> rows = cursor == null
+                ? courseRepository.findPage(CursorPage.lookahead(pageSize))
+                : courseRepository.findPageAfter(PageCursor.decode(cursor, 1).getLong(0), CursorPage.lookahead(pageSize));
+        return CursorPage.of(rows, pageSize, last -> PageCursor.encode(last.getId()));
     }
 
     public Optional<Course> getCourseById(Long id) {
@@ -38,11 +117,27 @@ public class CourseService {
     }
 
     public List<Course> searchCourses(String searchTerm) {
-        return courseRepository.searchPublishedCourses(searchTerm);
+        if (!searchIndexService.isReady()) {
+            return courseRepository.searchPublishedCourses(searchTerm);
+        }
+        return loadPublishedInRankOrder(searchIndexService.searchPublishedCourses(searchTerm, null, null));
     }
 
     public List<Course> filterCourses(String searchTerm, String category, String difficulty) {
-        return courseRepository.filterCourses(searchTerm, category, difficulty);
+        if (searchTerm == null || searchTerm.isBlank()) {
+            return courseRepository.findPublishedByCategoryAndDifficulty(category, difficulty);
+        }
+        if (!searchIndexService.isReady()) {
+            return courseRepository.filterCourses(searchTerm, category, difficulty);
+        }
+        return loadPublishedInRankOrder(searchIndexService.searchPublishedCourses(searchTerm, category, difficulty));
+    }
+
+    // The index is updated after commit, so re-check the published flag on the rows actually loaded
+    private List<Course> loadPublishedInRankOrder(List<Long> ids) {
+        List<Course> courses = SearchIndexService.inRankOrder(ids, courseRepository.findAllById(ids), Course::getId);
+        courses.removeIf(course -> !Boolean.TRUE.equals(course.getIsPublished()));
+        return courses;
     }
 
     public List<String> getAllCategories() {
@@ -57,7 +152,9 @@ public class CourseService {
         Optional<User> teacher = userRepository.findById(teacherId);
         if (teacher.isPresent() && teacher.get().getRole() == User.Role.TEACHER) {
             course.setTeacher(teacher.get());
-            return courseRepository.save(course);
+            Course savedCourse = courseRepository.save(course);
+            eventPublisher.publishEvent(ContentChangedEvent.courseSaved(savedCourse.getId()));
+            return savedCourse;
         }
         throw new RuntimeException("Teacher not found or invalid role");
     }
@@ -80,6 +177,7 @@ public class CourseService {
             course.setThumbnailUrl(updatedCourse.getThumbnailUrl());
             course.setIsPublished(updatedCourse.getIsPublished());
 
+            eventPublisher.publishEvent(ContentChangedEvent.courseSaved(courseId));
             return courseRepository.save(course);
         }
         throw new RuntimeException("Course not found");
@@ -93,6 +191,7 @@ public class CourseService {
                 throw new RuntimeException("Unauthorized to delete this course");
             }
             courseRepository.deleteById(courseId);
+            eventPublisher.publishEvent(ContentChangedEvent.courseDeleted(courseId));
         } else {
             throw new RuntimeException("Course not found");
         }
@@ -109,6 +208,7 @@ public class CourseService {
             }
 
             course.setIsPublished(true);
+            eventPublisher.publishEvent(ContentChangedEvent.courseSaved(courseId));
             return courseRepository.save(course);
         }
         throw new RuntimeException("Course not found");
@@ -125,6 +225,7 @@ public class CourseService {
             }
 
             course.setIsPublished(false);
+            eventPublisher.publishEvent(ContentChangedEvent.courseSaved(courseId));
             return courseRepository.save(course);
         }
         throw new RuntimeException("Course not found");
@@ -0,0 +1,267 @@
+package com.elearning.service;
+
+import com.elearning.entity.MediaAsset;
+import com.elearning.entity.MediaDerivative;
+import com.elearning.event.MediaStoredEvent;
+import com.elearning.repository.MediaDerivativeRepository;
+import com.elearning.util.MediaVariants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Resized variants of uploaded images for low-end devices. Variants are generated once per source on a
+// bounded pool, stored content-addressed like any other media, and looked up from memory afterwards.
+@Service
+public class ImageDerivativeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageDerivativeService.class);
+
+    @Autowired
+    private MediaStorageService mediaStorageService;
+
+    @Autowired
+    private MediaDerivativeRepository mediaDerivativeRepository;
+
+    @Autowired
+    @Qualifier("imageDerivativeExecutor")
+    private ThreadPoolTaskExecutor imageDerivativeExecutor;
+
+    @Value("${media.derivatives.jpeg-quality:0.82}")
+    private float jpegQuality;
+
+    // source key -> (width -> derived key); only complete sets are cached
+    private final Map<String, Map<Integer, String>> derivatives = new ConcurrentHashMap<>();
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    @EventListener
+    public void onMediaStored(MediaStoredEvent event) {
+        schedule(event.getAsset());
+    }
+
+    // Derived key for the width, or null while the variants are still being generated
+    public String findDerivative(MediaAsset source, int width) {
+        Map<Integer, String> widths = derivatives.get(source.getStorageKey());
+        if (widths == null) {
+            widths = new HashMap<>();
+            for (MediaDerivative derivative : mediaDerivativeRepository.findBySourceKey(source.getStorageKey())) {
+                widths.put(derivative.getWidth(), derivative.getDerivedKey());
+            }
+            if (widths.isEmpty() && mediaDerivativeRepository.isDerivedKey(source.getStorageKey())) {
+                // Already a resized variant: served as it is rather than resized again
+                widths = unresized(source);
+            } else if (widths.size() < MediaVariants.WIDTHS.length) {
+                schedule(source);
+                return widths.get(width);
+            }
+            derivatives.put(source.getStorageKey(), widths);
+        }
+        return widths.get(width);
+    }
+
+    public boolean isResizable(MediaAsset asset) {
+        return asset.getContentType().startsWith("image/");
+    }
+
+    private void schedule(MediaAsset source) {
+        if (!isResizable(source) || derivatives.containsKey(source.getStorageKey())
+                || !inFlight.add(source.getStorageKey())) {
+            return;
+        }
+        try {
+            imageDerivativeExecutor.execute(() -> {
+                try {
+                    generate(source);
+                } catch (IOException | RuntimeException e) {
+                    logger.warn("Failed to generate image variants for {}", source.getStorageKey(), e);
+                } finally {
+                    inFlight.remove(source.getStorageKey());
+                }
+            });
+        } catch (TaskRejectedException e) {
+            // Queue is full; the next request for a variant schedules it again
+            inFlight.remove(source.getStorageKey());
+        }
+    }
+
+    private void generate(MediaAsset source) throws IOException {
+        Map<Integer, String> widths = new HashMap<>();
+        for (MediaDerivative derivative : mediaDerivativeRepository.findBySourceKey(source.getStorageKey())) {
+            widths.put(derivative.getWidth(), derivative.getDerivedKey());
+        }
+        if (widths.size() < MediaVariants.WIDTHS.length) {
+            Decoded decoded;
+            try {
+                decoded = decode(mediaStorageService.resolve(source.getStorageKey()), largestWidth(widths));
+            } catch (IOException | RuntimeException e) {
+                // E.g. CMYK JPEGs, which the JDK reader rejects
+                logger.warn("Cannot decode {} ({}): {}", source.getStorageKey(), source.getContentType(), e.toString());
+                decoded = null;
+            }
+            if (decoded == null) {
+                // Recorded like a source narrower than every width, so neither this instance nor another tries again
+                logger.warn("Serving {} ({}) unresized", source.getStorageKey(), source.getContentType());
+                for (int width : MediaVariants.WIDTHS) {
+                    if (!widths.containsKey(width)) {
+                        widths.put(width, record(source.getStorageKey(), width, source.getStorageKey()));
+                    }
+                }
+                derivatives.put(source.getStorageKey(), widths);
+                return;
+            }
+            for (int width : MediaVariants.WIDTHS) {
+                if (!widths.containsKey(width)) {
+                    String derivedKey = width >= decoded.sourceWidth
+                            ? source.getStorageKey()
+                            : store(source, resize(decoded.image, width), width);
+                    widths.put(width, record(source.getStorageKey(), width, derivedKey));
+                }
+            }
+        }
+        derivatives.put(source.getStorageKey(), widths);
+    }
+
+    private static Map<Integer, String> unresized(MediaAsset source) {
+        Map<Integer, String> widths = new HashMap<>();
+        for (int width : MediaVariants.WIDTHS) {
+            widths.put(width, source.getStorageKey());
+        }
+        return widths;
+    }
+
+    private int largestWidth(Map<Integer, String> done) {
+        int largest = 0;
+        for (int width : MediaVariants.WIDTHS) {
+            if (!done.containsKey(width)) {
+                largest = Math.max(largest, width);
+            }
+        }
+        return largest;
+    }
+
+    // Decodes with subsampling so a 6000px photo never has to be held at full resolution
+    private static Decoded decode(Path file, int targetWidth) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                ImageReadParam param = reader.getDefaultReadParam();
+                // Keep at least twice the target width so the final resize can still smooth
+                int sourceWidth = reader.getWidth(0);
+                int subsampling = Math.max(1, sourceWidth / (targetWidth * 2));
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return new Decoded(reader.read(0, param), sourceWidth);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Halves repeatedly before the final step; one large bilinear step drops too much detail
+    private static BufferedImage resize(BufferedImage image, int width) {
+        boolean alpha = image.getColorModel().hasAlpha();
+        BufferedImage current = image;
+        int currentWidth = image.getWidth();
+        int currentHeight = image.getHeight();
+        while (currentWidth > width) {
+            int nextWidth = Math.max(width, currentWidth / 2);
+            int nextHeight = Math.max(1, (int) Math.round((double) currentHeight * nextWidth / currentWidth));
+            BufferedImage next = new BufferedImage(nextWidth, nextHeight,
+                    alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.drawImage(current, 0, 0, nextWidth, nextHeight, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+            currentWidth = nextWidth;
+            currentHeight = nextHeight;
+        }
+        return current;
+    }
+
+    private String store(MediaAsset source, BufferedImage image, int width) throws IOException {
+        boolean alpha = image.getColorModel().hasAlpha();
+        String format = alpha ? "png" : "jpeg";
+        Path temp = Files.createTempFile(mediaStorageService.getUploadDir(), "derivative-", ".part");
+        try {
+            MessageDigest digest = MediaStorageService.sha256();
+            ImageWriter writer = ImageIO.getImageWritersByFormatName(format).next();
+            try (OutputStream out = new DigestOutputStream(Files.newOutputStream(temp), digest);
+                 ImageOutputStream imageOut = ImageIO.createImageOutputStream(out)) {
+                writer.setOutput(imageOut);
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                if (!alpha) {
+                    param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                    param.setCompressionQuality(jpegQuality);
+                    // Progressive scans show a usable preview early on slow connections
+                    param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+                }
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            MediaAsset derived = mediaStorageService.commit(temp, HexFormat.of().formatHex(digest.digest()),
+                    "image/" + format, width + "w-" + source.getOriginalFilename(), source.getUploadedBy());
+            return derived.getStorageKey();
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private String record(String sourceKey, int width, String derivedKey) {
+        try {
+            mediaDerivativeRepository.save(new MediaDerivative(sourceKey, width, derivedKey));
+        } catch (DataIntegrityViolationException e) {
+            // Generated concurrently by another instance; identical bytes, identical key
+        }
+        return derivedKey;
+    }
+
+    private static class Decoded {
+        private final BufferedImage image;
+        private final int sourceWidth;
+
+        private Decoded(BufferedImage image, int sourceWidth) {
+            this.image = image;
+            this.sourceWidth = sourceWidth;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.elearning.service;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Immutable lesson order of one course as parallel primitive arrays, sorted by order key then id
+public final class LessonSequence {
+
+    private final long[] ids;
+    private final int[] orders;
+
+    LessonSequence(List<Object[]> orderKeys) {
+        ids = new long[orderKeys.size()];
+        orders = new int[orderKeys.size()];
+        for (int i = 0; i < ids.length; i++) {
+            Object[] row = orderKeys.get(i);
+            ids[i] = (Long) row[0];
+            // Lessons without a key sort last in the database; keep the arrays sorted to match
+            orders[i] = row[1] != null ? (Integer) row[1] : Integer.MAX_VALUE;
+        }
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    // Lesson at the 1-based position, or null past either end
+    public Long idAtPosition(int position) {
+        return position >= 1 && position <= ids.length ? ids[position - 1] : null;
+    }
+
+    public Long nextAfter(int order) {
+        int index = firstIndexAbove(order);
+        return index < ids.length ? ids[index] : null;
+    }
+
+    public Long previousBefore(int order) {
+        int index = firstIndexAtLeast(order) - 1;
+        return index >= 0 ? ids[index] : null;
+    }
+
+    private int firstIndexAbove(int order) {
+        return order == Integer.MAX_VALUE ? ids.length : firstIndexAtLeast(order + 1);
+    }
+
+    // Binary search over the sorted keys; equal keys resolve to the leftmost match
+    private int firstIndexAtLeast(int order) {
+        int index = Arrays.binarySearch(orders, order);
+        if (index < 0) {
+            return -index - 1;
+        }
+        while (index > 0 && orders[index - 1] == order) {
+            index--;
+        }
+        return index;
+    }
+}
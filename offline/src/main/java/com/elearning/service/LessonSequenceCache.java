@@ -0,0 +1,54 @@
+package com.elearning.service;
+
+import com.elearning.event.ContentChangedEvent;
+import com.elearning.repository.LessonRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Per-course lesson sequences for navigation, dropped whenever a lesson in the course changes
+@Service
+public class LessonSequenceCache {
+
+    @Autowired
+    private LessonRepository lessonRepository;
+
+    private final Map<Long, LessonSequence> sequences = new ConcurrentHashMap<>();
+
+    // Bumped on every invalidation so a load that raced with a commit is never cached
+    private final AtomicLong generation = new AtomicLong();
+
+    @Value("${lessons.sequence-cache.max-courses:10000}")
+    private int maxCourses;
+
+    // Empty sequences are not kept: any course id can be asked for, including ones that do not exist. Past
+    // maxCourses new sequences are served uncached until invalidations make room.
+    public LessonSequence get(Long courseId) {
+        LessonSequence sequence = sequences.get(courseId);
+        if (sequence == null) {
+            long loadedAt = generation.get();
+            sequence = new LessonSequence(lessonRepository.findOrderKeysByCourseId(courseId));
+            if (sequence.size() > 0 && sequences.size() < maxCourses && generation.get() == loadedAt) {
+                sequences.put(courseId, sequence);
+                if (generation.get() != loadedAt) {
+                    sequences.remove(courseId, sequence);
+                }
+            }
+        }
+        return sequence;
+    }
+
+    @TransactionalEventListener
+    public void onContentChanged(ContentChangedEvent event) {
+        if (event.getContentType() == ContentChangedEvent.ContentType.QUIZ) {
+            return;
+        }
+        generation.incrementAndGet();
+        sequences.remove(event.getCourseId());
+    }
+}
@@ -1,28 +1,98 @@
 package com.elearning.service;
 
+import com.elearning.dto.ContentVersion;
+import com.elearning.dto.LessonContent;
+import com.elearning.dto.LessonSummary;
 import com.elearning.entity.Lesson;
 import com.elearning.entity.Course;
+import com.elearning.event.ContentChangedEvent;
 import com.elearning.repository.LessonRepository;
 import com.elearning.repository.CourseRepository;
+import com.elearning.repository.QuizRepository;
+import com.elearning.search.SearchIndexService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class LessonService {
 
+    private static final Logger logger = LoggerFactory.getLogger(LessonService.class);
+
+    // Lesson order keys are spaced this far apart so a move can take the midpoint of its new neighbours
+    public static final int LESSON_ORDER_GAP = 1024;
+
+    // Courses whose neighbouring keys get closer than this are respaced in the background
+    private static final int MIN_LESSON_ORDER_GAP = 8;
+
     @Autowired
     private LessonRepository lessonRepository;
 
     @Autowired
     private CourseRepository courseRepository;
 
-    public List<Lesson> getLessonsByCourse(Long courseId) {
-        return lessonRepository.findByCourseIdOrderByLessonOrderAsc(courseId);
+    @Autowired
+    private QuizRepository quizRepository;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private LessonSequenceCache lessonSequenceCache;
+
+    @Value("${lessons.compress-content:true}")
+    private boolean compressContent;
+
+    public LessonContent getLessonContent(Long lessonId) {
+        return lessonRepository.findContentById(lessonId);
+    }
+
+    public List<LessonSummary> getLessonSummariesByCourse(Long courseId) {
+        return lessonRepository.findSummariesByCourseId(courseId);
+    }
+
+    // Summaries carry quiz counts, so quiz edits must change their validator too
+    public ContentVersion getLessonSummariesVersionByCourse(Long courseId) {
+        return lessonRepository.findVersionByCourseId(courseId).combine(quizRepository.findVersionByCourseId(courseId));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillContentHashes() {
+        int updated = lessonRepository.backfillContentHashes();
+        if (updated > 0) {
+            logger.info("Backfilled content hashes for {} lessons", updated);
+        }
+    }
+
+    public ContentVersion getLessonVersion(Long lessonId) {
+        return lessonRepository.findVersionById(lessonId);
     }
 
     public Optional<Lesson> getLessonById(Long lessonId) {
@@ -30,7 +100,24 @@ public class LessonService {
     }
 
     public List<Lesson> searchLessonsInCourse(Long courseId, String searchTerm) {
-        return lessonRepository.searchLessonsInCourse(courseId, searchTerm);
+        if (!searchIndexService.isReady()) {
+            return scanLessonsInCourse(courseId, searchTerm);
+        }
+        List<Long> ids = searchIndexService.searchLessonsInCourse(courseId, searchTerm);
+        return SearchIndexService.inRankOrder(ids, lessonRepository.findAllById(ids), Lesson::getId);
+    }
+
+    // Before the index is ready: plain bodies are matched by the database, compressed ones of this course here
+    private List<Lesson> scanLessonsInCourse(Long courseId, String searchTerm) {
+        String term = searchTerm.toLowerCase(Locale.ROOT);
+        List<Lesson> matches = new ArrayList<>();
+        for (Lesson lesson : lessonRepository.searchLessonCandidatesInCourse(courseId, searchTerm)) {
+            if (!lesson.isCompressed() || lesson.getTitle().toLowerCase(Locale.ROOT).contains(term)
+                    || lesson.getContent().toLowerCase(Locale.ROOT).contains(term)) {
+                matches.add(lesson);
+            }
+        }
+        return matches;
     }
 
     public Lesson createLesson(Lesson lesson, Long courseId, Long teacherId) {
@@ -44,14 +131,19 @@ public class LessonService {
             }
 
             lesson.setCourse(course);
+            if (compressContent) {
+                lesson.compressContent();
+            }
             
             // Set lesson order if not provided
             if (lesson.getLessonOrder() == null) {
                 Integer maxOrder = lessonRepository.findMaxLessonOrderByCourseId(courseId);
-                lesson.setLessonOrder(maxOrder != null ? maxOrder + 1 : 1);
+                lesson.setLessonOrder(maxOrder != null ? maxOrder + LESSON_ORDER_GAP : LESSON_ORDER_GAP);
             }
 
-            return lessonRepository.save(lesson);
+            Lesson savedLesson = lessonRepository.save(lesson);
+            eventPublisher.publishEvent(ContentChangedEvent.lessonSaved(savedLesson.getId(), courseId));
+            return savedLesson;
         }
         throw new RuntimeException("Course not found");
     }
@@ -68,6 +160,9 @@ public class LessonService {
 
             lesson.setTitle(updatedLesson.getTitle());
             lesson.setContent(updatedLesson.getContent());
+            if (compressContent) {
+                lesson.compressContent();
+            }
             lesson.setType(updatedLesson.getType());
             lesson.setDurationMinutes(updatedLesson.getDurationMinutes());
             lesson.setVideoUrl(updatedLesson.getVideoUrl());
@@ -78,6 +173,7 @@ public class LessonService {
                 lesson.setLessonOrder(updatedLesson.getLessonOrder());
             }
 
+            eventPublisher.publishEvent(ContentChangedEvent.lessonSaved(lessonId, lesson.getCourse().getId()));
             return lessonRepository.save(lesson);
         }
         throw new RuntimeException("Lesson not found");
@@ -91,21 +187,55 @@ public class LessonService {
                 throw new RuntimeException("Unauthorized to delete this lesson");
             }
             lessonRepository.deleteById(lessonId);
+            eventPublisher.publishEvent(ContentChangedEvent.lessonDeleted(lessonId, lesson.get().getCourse().getId()));
         } else {
             throw new RuntimeException("Lesson not found");
         }
     }
 
+    public void checkLessonOwner(Long lessonId, Long teacherId) {
+        Lesson lesson = lessonRepository.findById(lessonId).orElseThrow(() -> new RuntimeException("Lesson not found"));
+        if (!lesson.getCourse().getTeacher().getId().equals(teacherId)) {
+            throw new RuntimeException("Unauthorized to update this lesson");
+        }
+    }
+
+    // Points the lesson's video or image at a stored media file, depending on the file type
+    public Lesson attachMedia(Long lessonId, String url, String contentType, Long teacherId) {
+        Lesson lesson = lessonRepository.findById(lessonId).orElseThrow(() -> new RuntimeException("Lesson not found"));
+        if (!lesson.getCourse().getTeacher().getId().equals(teacherId)) {
+            throw new RuntimeException("Unauthorized to update this lesson");
+        }
+        if (contentType.startsWith("image/")) {
+            lesson.setImageUrl(url);
+        } else {
+            lesson.setVideoUrl(url);
+        }
+        eventPublisher.publishEvent(ContentChangedEvent.lessonSaved(lessonId, lesson.getCourse().getId()));
+        return lessonRepository.save(lesson);
+    }
+
+    // Navigation answers from the cached course sequence and loads at most the one neighbouring lesson
     public List<Lesson> getNextLessons(Long courseId, Integer currentOrder) {
-        return lessonRepository.findNextLessons(courseId, currentOrder);
+        return loadAsList(getNextLessonId(courseId, currentOrder));
     }
 
     public List<Lesson> getPreviousLessons(Long courseId, Integer currentOrder) {
-        return lessonRepository.findPreviousLessons(courseId, currentOrder);
+        return loadAsList(currentOrder != null ? lessonSequenceCache.get(courseId).previousBefore(currentOrder) : null);
+    }
+
+    public Long getNextLessonId(Long courseId, Integer currentOrder) {
+        return courseId != null && currentOrder != null ? lessonSequenceCache.get(courseId).nextAfter(currentOrder) : null;
     }
 
+    // order is the 1-based position in the course, independent of the spacing of the order keys
     public Lesson getLessonByOrder(Long courseId, Integer order) {
-        return lessonRepository.findByCourseIdAndLessonOrder(courseId, order);
+        Long lessonId = order != null ? lessonSequenceCache.get(courseId).idAtPosition(order) : null;
+        return lessonId != null ? lessonRepository.findById(lessonId).orElse(null) : null;
+    }
+
+    private List<Lesson> loadAsList(Long lessonId) {
+        return lessonId != null ? lessonRepository.findById(lessonId).map(List::of).orElse(List.of()) : List.of();
     }
 
     public long getLessonsCountByCourse(Long courseId) {
@@ -120,6 +250,8 @@ public class LessonService {
         return lessonRepository.findByCourse_IdAndType(courseId, type);
     }
 
+    // Moves the lesson to the given 1-based position. Only the moved row is written unless its new
+    // neighbours have run out of room between their keys, in which case the course is respaced first.
     public Lesson reorderLesson(Long lessonId, Integer newOrder, Long teacherId) {
         Optional<Lesson> lessonOpt = lessonRepository.findById(lessonId);
         if (lessonOpt.isPresent()) {
@@ -130,9 +262,87 @@ public class LessonService {
                 throw new RuntimeException("Unauthorized to reorder this lesson");
             }
 
-            lesson.setLessonOrder(newOrder);
+            Long courseId = lesson.getCourse().getId();
+            Integer orderKey = orderKeyForPosition(lessonRepository.findOrderKeysByCourseId(courseId), lessonId, newOrder);
+            if (orderKey == null) {
+                renumberLessons(courseId);
+                lesson = lessonRepository.findById(lessonId).orElseThrow(() -> new RuntimeException("Lesson not found"));
+                orderKey = orderKeyForPosition(lessonRepository.findOrderKeysByCourseId(courseId), lessonId, newOrder);
+            }
+
+            lesson.setLessonOrder(orderKey);
+            eventPublisher.publishEvent(ContentChangedEvent.lessonSaved(lessonId, courseId));
             return lessonRepository.save(lesson);
         }
         throw new RuntimeException("Lesson not found");
     }
+
+    // Applies a complete drag-and-drop sequence in one UPDATE instead of one save per lesson
+    public List<Lesson> applyLessonOrder(Long courseId, List<Long> lessonIds, Long teacherId) {
+        Course course = courseRepository.findById(courseId).orElseThrow(() -> new RuntimeException("Course not found"));
+        if (!course.getTeacher().getId().equals(teacherId)) {
+            throw new RuntimeException("Unauthorized to reorder lessons in this course");
+        }
+        List<Object[]> keys = lessonRepository.findOrderKeysByCourseId(courseId);
+        List<Long> currentIds = new ArrayList<>(keys.size());
+        keys.forEach(row -> currentIds.add((Long) row[0]));
+        if (lessonIds == null || lessonIds.size() != currentIds.size()
+                || !new HashSet<>(lessonIds).equals(new HashSet<>(currentIds))) {
+            throw new RuntimeException("Lesson order must list every lesson of the course exactly once");
+        }
+        writeLessonOrder(courseId, keys, lessonIds);
+        return lessonRepository.findByCourseIdOrderByLessonOrderAsc(courseId);
+    }
+
+    // Respaces courses squeezed by many single-row moves, one short transaction per course
+    @Scheduled(fixedDelayString = "${lessons.renumber-interval-ms:3600000}",
+               initialDelayString = "${lessons.renumber-interval-ms:3600000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void renumberCrowdedCourses() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        for (Long courseId : lessonRepository.findCourseIdsWithCrowdedOrder(MIN_LESSON_ORDER_GAP)) {
+            transaction.executeWithoutResult(status -> renumberLessons(courseId));
+        }
+    }
+
+    private void renumberLessons(Long courseId) {
+        List<Object[]> keys = lessonRepository.findOrderKeysByCourseId(courseId);
+        List<Long> ids = new ArrayList<>(keys.size());
+        keys.forEach(row -> ids.add((Long) row[0]));
+        writeLessonOrder(courseId, keys, ids);
+    }
+
+    private void writeLessonOrder(Long courseId, List<Object[]> currentKeys, List<Long> orderedIds) {
+        String idArray = orderedIds.stream().map(String::valueOf).collect(Collectors.joining(",", "{", "}"));
+        lessonRepository.applyLessonOrder(courseId, idArray, LESSON_ORDER_GAP, LocalDateTime.now());
+        // Only lessons whose key actually changed are reported to caches and the sync log
+        Map<Long, Integer> previous = new HashMap<>();
+        currentKeys.forEach(row -> previous.put((Long) row[0], (Integer) row[1]));
+        for (int i = 0; i < orderedIds.size(); i++) {
+            Long lessonId = orderedIds.get(i);
+            if (!Integer.valueOf((i + 1) * LESSON_ORDER_GAP).equals(previous.get(lessonId))) {
+                eventPublisher.publishEvent(ContentChangedEvent.lessonSaved(lessonId, courseId));
+            }
+        }
+    }
+
+    // Midpoint between the new neighbours, or null when they leave no room (or keys are missing)
+    private static Integer orderKeyForPosition(List<Object[]> keys, Long lessonId, Integer position) {
+        List<Integer> others = new ArrayList<>(keys.size());
+        for (Object[] row : keys) {
+            if (!row[0].equals(lessonId)) {
+                if (row[1] == null) {
+                    return null;
+                }
+                others.add((Integer) row[1]);
+            }
+        }
+        int index = Math.max(0, Math.min(position == null ? others.size() : position - 1, others.size()));
+        long before = index > 0 ? others.get(index - 1) : 0;
+        long after = index < others.size() ? others.get(index) : before + 2L * LESSON_ORDER_GAP;
+        if (after - before < 2 || after > Integer.MAX_VALUE) {
+            return null;
+        }
+        return (int) (before + (after - before) / 2);
+    }
 }
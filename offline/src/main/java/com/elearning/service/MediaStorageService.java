@@ -0,0 +1,157 @@
+package com.elearning.service;
+
+import com.elearning.entity.MediaAsset;
+import com.elearning.event.MediaStoredEvent;
+import com.elearning.repository.MediaAssetRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+// Local content directory for lesson videos, images and course thumbnails. Files are stored under the
+// SHA-256 of their bytes, so a stored file never changes and re-uploading the same file is free.
+@Service
+public class MediaStorageService {
+
+    private static final Pattern STORAGE_KEY = Pattern.compile("[0-9a-f]{64}");
+
+    @Autowired
+    private MediaAssetRepository mediaAssetRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${media.root:./media}")
+    private String rootPath;
+
+    @Value("${media.public-base-url:}")
+    private String publicBaseUrl;
+
+    @Value("${media.allowed-types:video/mp4,video/webm,audio/mpeg,image/jpeg,image/png,image/webp,image/gif}")
+    private Set<String> allowedTypes;
+
+    private Path root;
+    private Path uploadDir;
+
+    // Assets are immutable once stored, so lookups for range requests never need to go back to the database
+    private final Map<String, MediaAsset> assets = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() throws IOException {
+        root = Paths.get(rootPath).toAbsolutePath().normalize();
+        uploadDir = root.resolve("uploads");
+        Files.createDirectories(uploadDir);
+    }
+
+    public MediaAsset store(MultipartFile file, Long uploaderId) throws IOException {
+        String contentType = checkContentType(file.getContentType());
+        Path temp = Files.createTempFile(uploadDir, "upload-", ".part");
+        try {
+            MessageDigest digest = sha256();
+            try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+                Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return commitOriginal(temp, HexFormat.of().formatHex(digest.digest()), contentType, file.getOriginalFilename(), uploaderId);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // Teacher uploads; derived files go through commit() directly so they are never processed again
+    public MediaAsset commitOriginal(Path upload, String storageKey, String contentType, String originalFilename,
+                                     Long uploaderId) throws IOException {
+        MediaAsset asset = commit(upload, storageKey, contentType, originalFilename, uploaderId);
+        eventPublisher.publishEvent(new MediaStoredEvent(asset));
+        return asset;
+    }
+
+    // Moves a fully written upload into place under its content hash and records it
+    public MediaAsset commit(Path upload, String storageKey, String contentType, String originalFilename, Long uploaderId)
+            throws IOException {
+        Path target = resolve(storageKey);
+        if (!Files.exists(target)) {
+            Files.createDirectories(target.getParent());
+            Files.move(upload, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        }
+        MediaAsset existing = find(storageKey);
+        if (existing != null) {
+            return existing;
+        }
+        try {
+            MediaAsset asset = mediaAssetRepository.save(
+                    new MediaAsset(storageKey, contentType, Files.size(target), originalFilename, uploaderId));
+            assets.put(storageKey, asset);
+            return asset;
+        } catch (DataIntegrityViolationException e) {
+            // The same bytes were uploaded concurrently; both callers share the one asset
+            return find(storageKey);
+        }
+    }
+
+    public MediaAsset find(String storageKey) {
+        if (storageKey == null || !STORAGE_KEY.matcher(storageKey).matches()) {
+            return null;
+        }
+        MediaAsset asset = assets.get(storageKey);
+        if (asset == null) {
+            asset = mediaAssetRepository.findByStorageKey(storageKey).orElse(null);
+            if (asset != null) {
+                assets.put(storageKey, asset);
+            }
+        }
+        return asset;
+    }
+
+    // Two-character fan-out keeps directory sizes manageable on large stores
+    public Path resolve(String storageKey) {
+        return root.resolve(storageKey.substring(0, 2)).resolve(storageKey);
+    }
+
+    // Absolute URL for lesson and course fields; defaults to the host the current request came in on
+    public String urlFor(MediaAsset asset) {
+        UriComponentsBuilder base = publicBaseUrl.isEmpty()
+                ? ServletUriComponentsBuilder.fromCurrentContextPath()
+                : UriComponentsBuilder.fromUriString(publicBaseUrl);
+        return base.path("/media/{key}").buildAndExpand(asset.getStorageKey()).toUriString();
+    }
+
+    public Path getUploadDir() {
+        return uploadDir;
+    }
+
+    public String checkContentType(String contentType) {
+        String type = contentType == null ? "" : contentType.split(";")[0].trim().toLowerCase();
+        if (!allowedTypes.contains(type)) {
+            throw new IllegalArgumentException("Unsupported media type: " + contentType);
+        }
+        return type;
+    }
+
+    public static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
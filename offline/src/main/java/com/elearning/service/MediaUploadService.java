@@ -0,0 +1,257 @@
+package com.elearning.service;
+
+import com.elearning.entity.MediaAsset;
+import com.elearning.entity.MediaUpload;
+import com.elearning.exception.UploadConflictException;
+import com.elearning.repository.MediaUploadRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Resumable uploads (tus-style): create an upload, append chunks at the offset the server reports, and
+// ask for the offset again after a dropped connection. Chunks go straight from the request body into a
+// part file through a fixed buffer, and the content hash is kept running so the finished file is moved
+// into the media store without being read again.
+@Service
+public class MediaUploadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MediaUploadService.class);
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Autowired
+    private MediaUploadRepository mediaUploadRepository;
+
+    @Autowired
+    private MediaStorageService mediaStorageService;
+
+    @Autowired
+    private LessonService lessonService;
+
+    @Value("${media.upload.max-bytes:4294967296}")
+    private long maxUploadBytes;
+
+    @Value("${media.upload.expiry-hours:24}")
+    private long expiryHours;
+
+    private final Map<String, ReentrantLock> locks = new ConcurrentHashMap<>();
+
+    // Running SHA-256 per upload; lost on restart, in which case the received prefix is hashed once on resume
+    private final Map<String, MessageDigest> digests = new ConcurrentHashMap<>();
+
+    public long getMaxUploadBytes() {
+        return maxUploadBytes;
+    }
+
+    public MediaUpload createUpload(long length, String contentType, String filename, Long lessonId, Long uploaderId)
+            throws IOException {
+        if (length <= 0 || length > maxUploadBytes) {
+            throw new IllegalArgumentException("Upload length must be between 1 and " + maxUploadBytes + " bytes");
+        }
+        String type = mediaStorageService.checkContentType(contentType);
+        if (lessonId != null) {
+            lessonService.checkLessonOwner(lessonId, uploaderId);
+        }
+        MediaUpload upload = new MediaUpload(UUID.randomUUID().toString(), uploaderId, lessonId, type, filename, length);
+        Files.createFile(partFile(upload.getId()));
+        digests.put(upload.getId(), MediaStorageService.sha256());
+        return mediaUploadRepository.save(upload);
+    }
+
+    public MediaUpload getUpload(String uploadId, Long uploaderId) {
+        return mediaUploadRepository.findById(uploadId)
+                .filter(upload -> upload.getUploaderId().equals(uploaderId))
+                .orElse(null);
+    }
+
+    // Appends one chunk. Progress is saved even when the client disconnects mid-chunk, so the next
+    // offset query resumes from the last byte that reached the disk.
+    public MediaUpload appendChunk(String uploadId, Long uploaderId, long offset, InputStream body) throws IOException {
+        ReentrantLock lock = locks.computeIfAbsent(uploadId, id -> new ReentrantLock());
+        if (!lock.tryLock()) {
+            throw new UploadConflictException("Upload is already receiving a chunk");
+        }
+        try {
+            MediaUpload upload = getUpload(uploadId, uploaderId);
+            if (upload == null) {
+                locks.remove(uploadId);
+                return null;
+            }
+            if (offset != upload.getUploadOffset()) {
+                throw new UploadConflictException("Upload-Offset " + offset + " does not match " + upload.getUploadOffset());
+            }
+            // A retry after a failed completion has nothing left to write, and its part file may be in the store
+            if (!upload.isComplete()) {
+                receive(upload, body);
+            }
+            if (upload.isComplete()) {
+                upload.setAsset(complete(upload));
+            }
+            return upload;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Takes the chunk lock like appendChunk, so the part file is never deleted under a running PATCH
+    public boolean cancelUpload(String uploadId, Long uploaderId) throws IOException {
+        ReentrantLock lock = locks.computeIfAbsent(uploadId, id -> new ReentrantLock());
+        if (!lock.tryLock()) {
+            throw new UploadConflictException("Upload is receiving a chunk");
+        }
+        try {
+            MediaUpload upload = getUpload(uploadId, uploaderId);
+            if (upload == null) {
+                locks.remove(uploadId);
+                return false;
+            }
+            discard(upload);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // An upload that is receiving a chunk right now is not abandoned; it is looked at again on the next run
+    @Scheduled(fixedDelayString = "${media.upload.cleanup-interval-ms:3600000}")
+    public void deleteExpiredUploads() {
+        for (MediaUpload upload : mediaUploadRepository.findByUpdatedAtBefore(LocalDateTime.now().minusHours(expiryHours))) {
+            ReentrantLock lock = locks.computeIfAbsent(upload.getId(), id -> new ReentrantLock());
+            if (!lock.tryLock()) {
+                continue;
+            }
+            try {
+                discard(upload);
+                logger.info("Deleted abandoned upload {} at {} of {} bytes",
+                        upload.getId(), upload.getUploadOffset(), upload.getUploadLength());
+            } catch (IOException e) {
+                logger.warn("Failed to delete abandoned upload {}", upload.getId(), e);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void receive(MediaUpload upload, InputStream body) throws IOException {
+        Path part = partFile(upload.getId());
+        MessageDigest digest = digestFor(upload, part);
+        long position = upload.getUploadOffset();
+        try (FileChannel channel = FileChannel.open(part, StandardOpenOption.WRITE);
+             ReadableByteChannel in = Channels.newChannel(body)) {
+            // Drops bytes written after the last recorded offset, e.g. by a crash mid-chunk
+            channel.truncate(position);
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            try {
+                while (position < upload.getUploadLength()) {
+                    buffer.clear();
+                    buffer.limit((int) Math.min(BUFFER_SIZE, upload.getUploadLength() - position));
+                    if (in.read(buffer) < 0) {
+                        break;
+                    }
+                    buffer.flip();
+                    ByteBuffer written = buffer.duplicate();
+                    try {
+                        while (buffer.hasRemaining()) {
+                            position += channel.write(buffer, position);
+                        }
+                    } catch (IOException e) {
+                        // Part of this buffer may be on disk without being hashed; rehash on resume
+                        digests.remove(upload.getId());
+                        throw e;
+                    }
+                    digest.update(written);
+                }
+            } finally {
+                channel.force(false);
+                upload.setUploadOffset(position);
+                upload.setUpdatedAt(LocalDateTime.now());
+                // An update rather than save(), which would bring back a row that was discarded meanwhile
+                if (mediaUploadRepository.updateOffset(upload.getId(), position, upload.getUpdatedAt()) == 0) {
+                    throw new UploadConflictException("Upload was cancelled while receiving a chunk");
+                }
+            }
+        }
+    }
+
+    // The upload row and part file are only dropped once the asset is stored and attached, so a failure
+    // anywhere before that is retried by sending the final PATCH again
+    private MediaAsset complete(MediaUpload upload) throws IOException {
+        Path part = partFile(upload.getId());
+        if (upload.getStorageKey() == null) {
+            // Hashes a copy: digest() resets the running hash, which a retry would otherwise lose
+            MessageDigest digest = copyOf(digestFor(upload, part));
+            upload.setStorageKey(HexFormat.of().formatHex(digest.digest()));
+            mediaUploadRepository.save(upload);
+        }
+        MediaAsset asset = mediaStorageService.commitOriginal(part, upload.getStorageKey(), upload.getContentType(),
+                upload.getFilename(), upload.getUploaderId());
+        if (upload.getLessonId() != null) {
+            lessonService.attachMedia(upload.getLessonId(), mediaStorageService.urlFor(asset),
+                    asset.getContentType(), upload.getUploaderId());
+        }
+        discard(upload);
+        return asset;
+    }
+
+    private static MessageDigest copyOf(MessageDigest digest) {
+        try {
+            return (MessageDigest) digest.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("SHA-256 digest cannot be copied", e);
+        }
+    }
+
+    private MessageDigest digestFor(MediaUpload upload, Path part) throws IOException {
+        MessageDigest digest = digests.get(upload.getId());
+        if (digest == null) {
+            digest = MediaStorageService.sha256();
+            try (FileChannel channel = FileChannel.open(part, StandardOpenOption.READ)) {
+                ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+                long position = 0;
+                while (position < upload.getUploadOffset()) {
+                    buffer.clear();
+                    buffer.limit((int) Math.min(BUFFER_SIZE, upload.getUploadOffset() - position));
+                    int read = channel.read(buffer, position);
+                    if (read < 0) {
+                        throw new IOException("Part file for upload " + upload.getId() + " is shorter than its offset");
+                    }
+                    buffer.flip();
+                    digest.update(buffer);
+                    position += read;
+                }
+            }
+            digests.put(upload.getId(), digest);
+        }
+        return digest;
+    }
+
+    private void discard(MediaUpload upload) throws IOException {
+        mediaUploadRepository.delete(upload);
+        digests.remove(upload.getId());
+        locks.remove(upload.getId());
+        Files.deleteIfExists(partFile(upload.getId()));
+    }
+
+    private Path partFile(String uploadId) {
+        return mediaStorageService.getUploadDir().resolve(uploadId + ".part");
+    }
+}
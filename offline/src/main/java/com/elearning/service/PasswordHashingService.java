@@ -0,0 +1,66 @@
+package com.elearning.service;
+
+import com.elearning.exception.TooManyRequestsException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+@Service
+public class PasswordHashingService {
+
+    @Autowired
+    @Qualifier("passwordHashingExecutor")
+    private ThreadPoolTaskExecutor passwordHashingExecutor;
+
+    @Autowired
+    @Qualifier("bulkPasswordHashingExecutor")
+    private ThreadPoolTaskExecutor bulkPasswordHashingExecutor;
+
+    @Autowired
+    private AuthenticationManager authenticationManager;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Value("${security.password-hashing.retry-after-seconds:2}")
+    private long retryAfterSeconds;
+
+    public CompletableFuture<Authentication> authenticate(String username, String password) {
+        return submit(() -> authenticationManager.authenticate(
+                new UsernamePasswordAuthenticationToken(username, password)));
+    }
+
+    public CompletableFuture<String> encode(String rawPassword) {
+        return submit(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    // Hashes a batch in parallel across cores, preserving input order
+    public List<String> encodeAll(List<String> rawPasswords) {
+        List<CompletableFuture<String>> futures = rawPasswords.stream()
+                .map(raw -> CompletableFuture.supplyAsync(() -> passwordEncoder.encode(raw), bulkPasswordHashingExecutor))
+                .collect(Collectors.toList());
+        return futures.stream()
+                .map(CompletableFuture::join)
+                .collect(Collectors.toList());
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, passwordHashingExecutor);
+        } catch (TaskRejectedException e) {
+            throw new TooManyRequestsException("Server is busy, please try again shortly", retryAfterSeconds);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.elearning.service;
+
+import com.elearning.dto.PreEncodedPayload;
+
+// Immutable, ready-to-send view of the published catalog
+public class PublicCatalogSnapshot {
+
+    private final long version;
+    private final PreEncodedPayload courses;
+    private final PreEncodedPayload categories;
+    private final PreEncodedPayload difficulties;
+
+    public PublicCatalogSnapshot(long version, PreEncodedPayload courses,
+                                 PreEncodedPayload categories, PreEncodedPayload difficulties) {
+        this.version = version;
+        this.courses = courses;
+        this.categories = categories;
+        this.difficulties = difficulties;
+    }
+
+    public long getVersion() { return version; }
+
+    public PreEncodedPayload getCourses() { return courses; }
+
+    public PreEncodedPayload getCategories() { return categories; }
+
+    public PreEncodedPayload getDifficulties() { return difficulties; }
+}
@@ -0,0 +1,392 @@
+package com.elearning.service;
+
+import com.elearning.dto.QuizAnswerResult;
+import com.elearning.entity.Quiz;
+import com.elearning.entity.QuizResult;
+import com.elearning.exception.TooManyRequestsException;
+import com.elearning.grading.AnswerEvaluatorRegistry;
+import com.elearning.repository.QuizRepository;
+import com.elearning.repository.QuizResultRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+
+// Write-behind ingestion for exam bursts. A submission is validated and graded in memory, appended to a
+// local journal and acknowledged; a scheduled writer then inserts queued results into quiz_results in JDBC
+// batches. The journal is fsynced before the acknowledgement and replayed on startup, so an acknowledged
+// result survives a crash that happens before it reaches the database.
+@Service
+public class QuizIngestionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuizIngestionService.class);
+    private static final int MAX_KEY_LENGTH = 100;
+
+    // Replayed records that were already flushed hit the (student_id, idempotency_key) constraint and are
+    // skipped, and a record whose quiz or student has been deleted since it was queued selects no row. The
+    // statement itself is the rollup insert, since rows returned from a JDBC batch are an error.
+    private static final String INSERT_RESULT_SQL =
+            "WITH inserted AS (" +
+            "INSERT INTO quiz_results (student_id, quiz_id, user_answer, is_correct, points_earned, " +
+            "time_taken_seconds, submitted_at, idempotency_key) " +
+            "SELECT u.id, q.id, ?::text, ?::boolean, ?::integer, ?::integer, ?::timestamp, ?::text " +
+            "FROM quizzes q JOIN users u ON u.id = ?::bigint WHERE q.id = ?::bigint " +
+            "ON CONFLICT DO NOTHING RETURNING student_id, quiz_id, is_correct, points_earned) " +
+            QuizRollupService.ROLLUP_INSERTED;
+
+    @Autowired
+    private QuizRepository quizRepository;
+
+    @Autowired
+    private QuizResultRepository quizResultRepository;
+
+    @Autowired
+    private AnswerEvaluatorRegistry answerEvaluatorRegistry;
+
+    @Autowired
+    private RecentSubmissionFilter recentSubmissionFilter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private QuizRollupService quizRollupService;
+
+    @Value("${quiz.ingestion.enabled:true}")
+    private boolean enabled;
+
+    @Value("${quiz.ingestion.journal:./data/quiz-results.journal}")
+    private String journalPath;
+
+    @Value("${quiz.ingestion.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${quiz.ingestion.batch-size:500}")
+    private int batchSize;
+
+    @Value("${quiz.ingestion.retry-after-seconds:2}")
+    private long retryAfterSeconds;
+
+    private BlockingQueue<PendingResult> queue;
+    // One permit per queued result, taken before grading so a full queue is refused up front
+    private Semaphore slots;
+
+    // Acknowledgements of queued results by student and key, for replays that arrive before the flush
+    private final Map<String, QuizAnswerResult> acknowledged = new ConcurrentHashMap<>();
+    // Student and quiz of every queued result, so a second answer is refused before the first is written
+    private final Set<String> queuedQuizzes = ConcurrentHashMap.newKeySet();
+    // Drained but not yet written; kept across runs while the database is unavailable
+    private final List<PendingResult> batch = new ArrayList<>();
+
+    private final Object journalLock = new Object();
+    private final Object syncLock = new Object();
+    private FileChannel journal;
+    // Records that can never be inserted, kept for inspection instead of being retried forever
+    private Path deadLetterPath;
+    // Both guarded by journalLock: records ever appended, and records appended but not yet in the database
+    private long appended;
+    private long unflushed;
+    // Guarded by journalLock: journal length covered by the last successful force
+    private long syncedSize;
+    private volatile long synced;
+    // Records up to this sequence were cut from the journal after a failed force and never acknowledged
+    private volatile long abortedThrough;
+
+    @PostConstruct
+    public void init() throws IOException {
+        // Replayed results are added to the rollups, so those must be complete first
+        quizRollupService.reconcile();
+        queue = new LinkedBlockingQueue<>(queueCapacity);
+        slots = new Semaphore(queueCapacity);
+        Path path = Paths.get(journalPath).toAbsolutePath().normalize();
+        Files.createDirectories(path.getParent());
+        deadLetterPath = path.resolveSibling(path.getFileName() + ".rejected");
+        if (Files.exists(path) && Files.size(path) > 0) {
+            replayJournal(path);
+        }
+        journal = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        journal.truncate(0);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Acknowledges once the graded result is on disk; the same key always gets the same answer back
+    public CompletableFuture<QuizAnswerResult> ingest(Long quizId, Long studentId, String userAnswer,
+                                                      Integer timeTakenSeconds, String idempotencyKey) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException(
+                    "Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters"));
+        }
+        String replayKey = studentId + ":" + idempotencyKey;
+        QuizAnswerResult ack = acknowledged.get(replayKey);
+        if (ack != null) {
+            return CompletableFuture.completedFuture(ack);
+        }
+        Optional<QuizResult> stored = quizResultRepository.findByStudent_IdAndIdempotencyKey(studentId, idempotencyKey);
+        if (stored.isPresent()) {
+            return CompletableFuture.completedFuture(new QuizAnswerResult(quizId, QuizAnswerResult.SUBMITTED,
+                    stored.get().getIsCorrect(), stored.get().getPointsEarned()));
+        }
+        Optional<Quiz> quizOpt = quizRepository.findById(quizId);
+        if (quizOpt.isEmpty()) {
+            return CompletableFuture.failedFuture(new RuntimeException("Quiz not found"));
+        }
+
+        String quizKey = studentId + ":" + quizId;
+        if (recentSubmissionFilter.contains(studentId, quizId)
+                || quizResultRepository.findByStudent_IdAndQuiz_Id(studentId, quizId).isPresent()
+                || !queuedQuizzes.add(quizKey)) {
+            // A replay racing its original may find the acknowledgement here
+            ack = acknowledged.get(replayKey);
+            return ack != null
+                    ? CompletableFuture.completedFuture(ack)
+                    : CompletableFuture.failedFuture(new RuntimeException("Quiz already submitted"));
+        }
+        if (!slots.tryAcquire()) {
+            queuedQuizzes.remove(quizKey);
+            throw new TooManyRequestsException("Server is busy, please try again shortly", retryAfterSeconds);
+        }
+
+        Quiz quiz = quizOpt.get();
+        int points = quiz.getPoints();
+        CompletableFuture<Boolean> grade;
+        try {
+            grade = answerEvaluatorRegistry.evaluateAsync(quiz, userAnswer);
+        } catch (RuntimeException e) {
+            slots.release();
+            queuedQuizzes.remove(quizKey);
+            throw e;
+        }
+        return grade.thenApply(isCorrect -> {
+            PendingResult result = new PendingResult(studentId, quizId, userAnswer, isCorrect, isCorrect ? points : 0,
+                    timeTakenSeconds, LocalDateTime.now(), idempotencyKey);
+            append(result);
+            QuizAnswerResult accepted = new QuizAnswerResult(quizId, QuizAnswerResult.ACCEPTED,
+                    isCorrect, result.pointsEarned());
+            acknowledged.put(replayKey, accepted);
+            queue.add(result);
+            return accepted;
+        }).whenComplete((accepted, e) -> {
+            if (e != null) {
+                slots.release();
+                queuedQuizzes.remove(quizKey);
+            }
+        });
+    }
+
+    // spring.task.scheduling.pool.size gives every scheduled job its own thread; keep it in step when adding jobs
+    @Scheduled(fixedDelayString = "${quiz.ingestion.flush-interval-ms:250}")
+    public synchronized void flush() {
+        while (true) {
+            if (batch.isEmpty()) {
+                queue.drainTo(batch, batchSize);
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                write(batch);
+            } catch (DataAccessException e) {
+                logger.warn("Failed to write {} queued quiz results; retrying on the next run", batch.size(), e);
+                return;
+            }
+            // Replays now find the row itself, so the in-memory acknowledgements can go
+            for (PendingResult result : batch) {
+                recentSubmissionFilter.add(result.studentId(), result.quizId());
+                acknowledged.remove(result.studentId() + ":" + result.idempotencyKey());
+                queuedQuizzes.remove(result.studentId() + ":" + result.quizId());
+            }
+            slots.release(batch.size());
+            releaseJournal(batch.size());
+            batch.clear();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        flush();
+        journal.close();
+    }
+
+    // A batch that still violates a constraint (a quiz deleted while the insert ran) is retried row by row, and
+    // rows that fail on their own are set aside so they cannot hold up the queue. Other failures propagate.
+    private void write(List<PendingResult> results) {
+        try {
+            insert(results);
+        } catch (DataIntegrityViolationException e) {
+            for (PendingResult result : results) {
+                try {
+                    insert(List.of(result));
+                } catch (DataIntegrityViolationException rowFailure) {
+                    deadLetter(result, rowFailure);
+                }
+            }
+        }
+    }
+
+    private void insert(List<PendingResult> results) {
+        List<Object[]> rows = new ArrayList<>(results.size());
+        for (PendingResult result : results) {
+            rows.add(new Object[] {result.userAnswer(), result.isCorrect(), result.pointsEarned(),
+                    result.timeTakenSeconds(), Timestamp.valueOf(result.submittedAt()), result.idempotencyKey(),
+                    result.studentId(), result.quizId()});
+        }
+        new TransactionTemplate(transactionManager)
+                .executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_RESULT_SQL, rows));
+    }
+
+    private void deadLetter(PendingResult result, DataIntegrityViolationException cause) {
+        logger.warn("Dropping quiz result of student {} for quiz {}: {}", result.studentId(), result.quizId(),
+                cause.getMostSpecificCause().getMessage());
+        try {
+            Files.writeString(deadLetterPath, objectMapper.writeValueAsString(result) + "\n", StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            logger.warn("Failed to record dropped quiz result in {}", deadLetterPath, e);
+        }
+    }
+
+    private void append(PendingResult result) {
+        try {
+            ByteBuffer line = ByteBuffer.wrap((objectMapper.writeValueAsString(result) + "\n")
+                    .getBytes(StandardCharsets.UTF_8));
+            long sequence;
+            synchronized (journalLock) {
+                long start = journal.size();
+                try {
+                    while (line.hasRemaining()) {
+                        journal.write(line);
+                    }
+                } catch (IOException e) {
+                    // A torn record would corrupt the next one on replay
+                    journal.truncate(start);
+                    throw e;
+                }
+                sequence = ++appended;
+                unflushed++;
+            }
+            syncThrough(sequence);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to journal quiz result", e);
+        }
+    }
+
+    // Group commit: one fsync covers every record appended before it started, so a burst shares the cost.
+    // When the force fails, every record it was meant to cover is cut from the journal again: the callers
+    // are told their submission failed, so it must not come back on the next replay.
+    private void syncThrough(long sequence) throws IOException {
+        synchronized (syncLock) {
+            if (synced >= sequence) {
+                return;
+            }
+            if (abortedThrough >= sequence) {
+                throw new IOException("Quiz result journal could not be forced to disk");
+            }
+            long target;
+            long targetSize;
+            synchronized (journalLock) {
+                target = appended;
+                targetSize = journal.size();
+            }
+            try {
+                journal.force(false);
+            } catch (IOException e) {
+                synchronized (journalLock) {
+                    unflushed -= appended - Math.max(synced, abortedThrough);
+                    abortedThrough = appended;
+                    try {
+                        journal.truncate(syncedSize);
+                    } catch (IOException truncateFailure) {
+                        e.addSuppressed(truncateFailure);
+                    }
+                }
+                throw e;
+            }
+            synchronized (journalLock) {
+                syncedSize = targetSize;
+            }
+            synced = target;
+        }
+    }
+
+    // Empties the journal whenever everything in it has reached the database
+    private void releaseJournal(int flushed) {
+        synchronized (journalLock) {
+            unflushed -= flushed;
+            if (unflushed == 0) {
+                syncedSize = 0;
+                try {
+                    journal.truncate(0);
+                } catch (IOException e) {
+                    // Harmless: a replay of flushed records is skipped by the unique constraint
+                    logger.warn("Failed to truncate quiz result journal", e);
+                }
+            }
+        }
+    }
+
+    private void replayJournal(Path path) throws IOException {
+        List<PendingResult> records = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                try {
+                    records.add(objectMapper.readValue(line, PendingResult.class));
+                } catch (JsonProcessingException e) {
+                    // Only the record being written at the crash can be torn, and it was never acknowledged
+                    logger.warn("Skipping unreadable quiz result journal record");
+                }
+            }
+        }
+        for (int from = 0; from < records.size(); from += batchSize) {
+            write(records.subList(from, Math.min(records.size(), from + batchSize)));
+        }
+        logger.info("Replayed {} journaled quiz results", records.size());
+    }
+
+    record PendingResult(Long studentId, Long quizId, String userAnswer, boolean isCorrect, int pointsEarned,
+                         Integer timeTakenSeconds, LocalDateTime submittedAt, String idempotencyKey) {
+    }
+}
@@ -0,0 +1,94 @@
+package com.elearning.service;
+
+import com.elearning.entity.QuizRollup;
+import com.elearning.event.ContentChangedEvent;
+import com.elearning.repository.QuizResultRepository;
+import com.elearning.repository.QuizRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Optional;
+
+// Per-student, per-course quiz totals. Every statement that inserts into quiz_results names its new rows
+// "inserted" in a CTE and folds them in with ROLLUP_INSERTED, so the totals move in the same statement as the
+// results. Deleting quizzes, lessons or courses removes results through cascades, so those courses are recounted.
+@Service
+@Transactional
+public class QuizRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuizRollupService.class);
+
+    private static final int COURSE_RECOUNT_LOCK = 0x51525550;
+
+    // Expects a preceding CTE "inserted" returning student_id, quiz_id, is_correct and points_earned
+    public static final String ROLLUP_INSERTED =
+            "INSERT INTO quiz_rollups (student_id, course_id, answer_count, correct_count, points_sum) " +
+            "SELECT i.student_id, l.course_id, COUNT(*), COUNT(*) FILTER (WHERE i.is_correct), " +
+            "COALESCE(SUM(i.points_earned), 0) " +
+            "FROM inserted i JOIN quizzes q ON q.id = i.quiz_id JOIN lessons l ON l.id = q.lesson_id " +
+            "GROUP BY i.student_id, l.course_id " +
+            "ON CONFLICT (student_id, course_id) DO UPDATE SET " +
+            "answer_count = quiz_rollups.answer_count + EXCLUDED.answer_count, " +
+            "correct_count = quiz_rollups.correct_count + EXCLUDED.correct_count, " +
+            "points_sum = quiz_rollups.points_sum + EXCLUDED.points_sum";
+
+    @Autowired
+    private QuizRollupRepository quizRollupRepository;
+
+    @Autowired
+    private QuizResultRepository quizResultRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Transactional(readOnly = true)
+    public Optional<QuizRollup> getRollup(Long studentId, Long courseId) {
+        return quizRollupRepository.findById(new QuizRollup.Key(studentId, courseId));
+    }
+
+    // Runs at startup, before the journal replay and before requests are served. Recounts when the totals do not
+    // add up to the stored results: results from before the rollup table existed, or rows removed by hand or by
+    // the duplicate cleanup in QuizResultSchemaGuard.
+    public void reconcile() {
+        quizRollupRepository.lockRollups();
+        long counted = quizRollupRepository.sumAnswerCounts();
+        long stored = quizResultRepository.count();
+        if (counted != stored) {
+            quizRollupRepository.deleteAllRollups();
+            int rows = quizRollupRepository.insertAllFromResults();
+            logger.info("Rebuilt {} quiz rollups; they counted {} answers of {}", rows, counted, stored);
+        }
+    }
+
+    // Full recount; off unless quiz.rollups.rebuild-cron is set, e.g. after repairing results by hand
+    @Scheduled(cron = "${quiz.rollups.rebuild-cron:-}")
+    public void rebuildAll() {
+        quizRollupRepository.lockRollups();
+        quizRollupRepository.deleteAllRollups();
+        int rows = quizRollupRepository.insertAllFromResults();
+        logger.info("Rebuilt {} quiz rollups", rows);
+    }
+
+    // Runs after the delete committed, so the recount sees the cascaded results gone. Only recounts of the same
+    // course wait for each other; submissions keep going, since each one either updates a row before the delete
+    // removes it or after the recount has replaced it
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onContentChanged(ContentChangedEvent event) {
+        if (!event.isDeleted() || event.getCourseId() == null) {
+            return;
+        }
+        // Held until commit; ids beyond the int range share a lock, which only costs some waiting
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(?, ?)", rs -> null,
+                COURSE_RECOUNT_LOCK, (int) (event.getCourseId() % Integer.MAX_VALUE));
+        quizRollupRepository.deleteByCourseId(event.getCourseId());
+        quizRollupRepository.insertFromResultsForCourse(event.getCourseId());
+    }
+}
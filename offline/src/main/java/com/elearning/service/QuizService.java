@@ -1,24 +1,69 @@
 package com.elearning.service;
 
+import com.elearning.dto.ContentVersion;
+import com.elearning.dto.CursorPage;
+import com.elearning.dto.PageCursor;
+import com.elearning.dto.QuizAnswerResult;
+import com.elearning.dto.QuizSubmissionRequest;
 import com.elearning.entity.Quiz;
 import com.elearning.entity.QuizResult;
+import com.elearning.entity.QuizRollup;
 import com.elearning.entity.Lesson;
-import com.elearning.entity.User;
+import com.elearning.event.ContentChangedEvent;
+import com.elearning.grading.AnswerEvaluatorRegistry;
 import com.elearning.repository.QuizRepository;
 import com.elearning.repository.QuizResultRepository;
 import com.elearning.repository.LessonRepository;
-import com.elearning.repository.UserRepository;
+import com.elearning.search.SearchIndexService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
-
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @Transactional
 public class QuizService {
 
+    // The unique (student_id, quiz_id) constraint decides duplicates; a conflicting row is simply not returned.
+    // The same statement adds the new row to the student's course rollup.
+    private static final String INSERT_RESULT_SQL =
+            "WITH inserted AS (" +
+            "INSERT INTO quiz_results (student_id, quiz_id, user_answer, is_correct, points_earned, " +
+            "time_taken_seconds, submitted_at) " +
+            "SELECT ?::bigint, q.id, ?::text, ?::boolean, CASE WHEN ?::boolean THEN q.points ELSE 0 END, " +
+            "?::integer, ?::timestamp FROM quizzes q WHERE q.id = ?::bigint " +
+            "ON CONFLICT DO NOTHING RETURNING id, student_id, quiz_id, is_correct, points_earned), " +
+            "rolled_up AS (" + QuizRollupService.ROLLUP_INSERTED + ") " +
+            "SELECT id, points_earned FROM inserted";
+
+    private static final String INSERT_RESULTS_SQL =
+            "WITH inserted AS (" +
+            "INSERT INTO quiz_results (student_id, quiz_id, user_answer, is_correct, points_earned, " +
+            "time_taken_seconds, submitted_at) " +
+            "SELECT ?::bigint, t.quiz_id, t.user_answer, t.is_correct, t.points_earned, t.time_taken_seconds, ?::timestamp " +
+            "FROM unnest(?::bigint[], ?::text[], ?::boolean[], ?::integer[], ?::integer[]) " +
+            "AS t(quiz_id, user_answer, is_correct, points_earned, time_taken_seconds) " +
+            "ON CONFLICT DO NOTHING RETURNING student_id, quiz_id, is_correct, points_earned), " +
+            "rolled_up AS (" + QuizRollupService.ROLLUP_INSERTED + ") " +
+            "SELECT quiz_id FROM inserted";
+
     @Autowired
     private QuizRepository quizRepository;
 
@@ -29,7 +74,25 @@ public class QuizService {
     private LessonRepository lessonRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AnswerEvaluatorRegistry answerEvaluatorRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private RecentSubmissionFilter recentSubmissionFilter;
+
+    @Autowired
+    private QuizRollupService quizRollupService;
 
     public List<Quiz> getQuizzesByLesson(Long lessonId) {
         return quizRepository.findByLesson_Id(lessonId);
@@ -39,6 +102,18 @@ public class QuizService {
         return quizRepository.findByCourseId(courseId);
     }
 
+    public ContentVersion getQuizzesVersionByLesson(Long lessonId) {
+        return quizRepository.findVersionByLessonId(lessonId);
+    }
+
+    public ContentVersion getQuizzesVersionByCourse(Long courseId) {
+        return quizRepository.findVersionByCourseId(courseId);
+    }
+
+    public ContentVersion getQuizVersion(Long quizId) {
+        return quizRepository.findVersionById(quizId);
+    }
+
     public Optional<Quiz> getQuizById(Long quizId) {
         return quizRepository.findById(quizId);
     }
@@ -54,7 +129,9 @@ public class QuizService {
             }
 
             quiz.setLesson(lesson);
-            return quizRepository.save(quiz);
+            Quiz savedQuiz = quizRepository.save(quiz);
+            eventPublisher.publishEvent(ContentChangedEvent.quizSaved(savedQuiz.getId(), lesson.getCourse().getId()));
+            return savedQuiz;
         }
         throw new RuntimeException("Lesson not found");
     }
@@ -77,7 +154,10 @@ public class QuizService {
             quiz.setExplanation(updatedQuiz.getExplanation());
             quiz.setPoints(updatedQuiz.getPoints());
             quiz.setTimeLimitSeconds(updatedQuiz.getTimeLimitSeconds());
+            quiz.setSimilarityThreshold(updatedQuiz.getSimilarityThreshold());
+            quiz.setAnswerMatching(updatedQuiz.getAnswerMatching());
 
+            eventPublisher.publishEvent(ContentChangedEvent.quizSaved(quizId, quiz.getLesson().getCourse().getId()));
             return quizRepository.save(quiz);
         }
         throw new RuntimeException("Quiz not found");
@@ -91,65 +171,174 @@ public class QuizService {
                 throw new RuntimeException("Unauthorized to delete this quiz");
             }
             quizRepository.deleteById(quizId);
+            eventPublisher.publishEvent(ContentChangedEvent.quizDeleted(quizId, quiz.get().getLesson().getCourse().getId()));
         } else {
             throw new RuntimeException("Quiz not found");
         }
     }
 
-    public QuizResult submitQuizAnswer(Long quizId, Long studentId, String userAnswer, Integer timeTakenSeconds) {
+    // Duplicates caught by the in-memory filter never cost a query or a drawing decode
+    @Transactional(readOnly = true)
+    public CompletableFuture<Boolean> gradeQuizAnswer(Long quizId, Long studentId, String userAnswer) {
+        if (recentSubmissionFilter.contains(studentId, quizId)) {
+            return CompletableFuture.failedFuture(new RuntimeException("Quiz already submitted"));
+        }
         Optional<Quiz> quizOpt = quizRepository.findById(quizId);
-        Optional<User> studentOpt = userRepository.findById(studentId);
-
-        if (quizOpt.isPresent() && studentOpt.isPresent()) {
-            Quiz quiz = quizOpt.get();
-            User student = studentOpt.get();
+        if (quizOpt.isEmpty()) {
+            return CompletableFuture.failedFuture(new RuntimeException("Quiz not found"));
+        }
+        return answerEvaluatorRegistry.evaluateAsync(quizOpt.get(), userAnswer);
+    }
 
-            // Check if student has already submitted this quiz
-            Optional<QuizResult> existingResult = quizResultRepository.findByStudent_IdAndQuiz_Id(studentId, quizId);
-            if (existingResult.isPresent()) {
-                throw new RuntimeException("Quiz already submitted");
+    // One INSERT ... ON CONFLICT DO NOTHING RETURNING: no existence check before it, and two concurrent
+    // submissions cannot both get in
+    public QuizResult submitQuizAnswer(Long quizId, Long studentId, String userAnswer, Integer timeTakenSeconds,
+                                       boolean isCorrect) {
+        if (!recentSubmissionFilter.add(studentId, quizId)) {
+            throw new RuntimeException("Quiz already submitted");
+        }
+        QuizResult result = new QuizResult();
+        result.setUserAnswer(userAnswer);
+        result.setIsCorrect(isCorrect);
+        result.setTimeTakenSeconds(timeTakenSeconds);
+        List<QuizResult> inserted;
+        try {
+            inserted = jdbcTemplate.query(INSERT_RESULT_SQL, (rs, rowNum) -> {
+                result.setId(rs.getLong("id"));
+                result.setPointsEarned(rs.getInt("points_earned"));
+                return result;
+            }, studentId, userAnswer, isCorrect, isCorrect, timeTakenSeconds,
+                    Timestamp.valueOf(result.getSubmittedAt()), quizId);
+        } catch (RuntimeException e) {
+            recentSubmissionFilter.remove(studentId, quizId);
+            throw e;
+        }
+        if (inserted.isEmpty()) {
+            // Only a failed insert pays for telling the two causes apart
+            if (!quizRepository.existsById(quizId)) {
+                recentSubmissionFilter.remove(studentId, quizId);
+                throw new RuntimeException("Quiz not found");
             }
+            throw new RuntimeException("Quiz already submitted");
+        }
+        return result;
+    }
 
-            // Evaluate the answer
-            boolean isCorrect = evaluateAnswer(quiz, userAnswer);
-            int pointsEarned = isCorrect ? quiz.getPoints() : 0;
+    // A whole lesson's answers: one IN query for the quizzes, one for earlier submissions, one insert for all rows.
+    // Drawings are graded on the grading pool; the insert runs once the last answer has been graded.
+    public CompletableFuture<List<QuizAnswerResult>> submitQuizAnswers(List<QuizSubmissionRequest> answers,
+                                                                       Long studentId) {
+        Set<Long> quizIds = new HashSet<>();
+        answers.forEach(answer -> quizIds.add(answer.getQuizId()));
+        Map<Long, Quiz> quizzes = new HashMap<>();
+        quizRepository.findAllById(quizIds).forEach(quiz -> quizzes.put(quiz.getId(), quiz));
+        Set<Long> submitted = quizIds.isEmpty()
+                ? new HashSet<>()
+                : new HashSet<>(quizResultRepository.findSubmittedQuizIds(studentId, quizIds));
+
+        // One grade per answer; null where the answer is not graded at all
+        List<CompletableFuture<Boolean>> grades = new ArrayList<>(answers.size());
+        List<CompletableFuture<Boolean>> pending = new ArrayList<>();
+        for (QuizSubmissionRequest answer : answers) {
+            Quiz quiz = quizzes.get(answer.getQuizId());
+            // submitted.add also catches the same quiz listed twice in one batch
+            if (quiz == null || !submitted.add(quiz.getId())) {
+                grades.add(null);
+            } else {
+                CompletableFuture<Boolean> grade = answerEvaluatorRegistry.evaluateAsync(quiz, answer.getUserAnswer());
+                grades.add(grade);
+                pending.add(grade);
+            }
+        }
 
-            QuizResult result = new QuizResult(student, quiz, userAnswer, isCorrect, pointsEarned);
-            result.setTimeTakenSeconds(timeTakenSeconds);
+        // Joins this transaction when every grade completed inline, otherwise runs in its own on the write pool
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        return CompletableFuture.allOf(pending.toArray(new CompletableFuture[0]))
+                .thenApply(graded -> transaction.execute(status -> recordQuizAnswers(answers, quizzes, grades, studentId)));
+    }
 
-            return quizResultRepository.save(result);
+    private List<QuizAnswerResult> recordQuizAnswers(List<QuizSubmissionRequest> answers, Map<Long, Quiz> quizzes,
+                                                     List<CompletableFuture<Boolean>> grades, Long studentId) {
+        int graded = (int) grades.stream().filter(Objects::nonNull).count();
+        Long[] quizIds = new Long[graded];
+        String[] userAnswers = new String[graded];
+        Boolean[] correct = new Boolean[graded];
+        Integer[] points = new Integer[graded];
+        Integer[] times = new Integer[graded];
+        int row = 0;
+        for (int i = 0; i < answers.size(); i++) {
+            if (grades.get(i) != null) {
+                QuizSubmissionRequest answer = answers.get(i);
+                boolean isCorrect = grades.get(i).join();
+                quizIds[row] = answer.getQuizId();
+                userAnswers[row] = answer.getUserAnswer();
+                correct[row] = isCorrect;
+                points[row] = isCorrect ? quizzes.get(answer.getQuizId()).getPoints() : 0;
+                times[row] = answer.getTimeTakenSeconds();
+                row++;
+            }
         }
-        throw new RuntimeException("Quiz or student not found");
-    }
 
-    private boolean evaluateAnswer(Quiz quiz, String userAnswer) {
-        if (quiz.getCorrectAnswer() == null || userAnswer == null) {
-            return false;
+        // Rows that lost a race with a concurrent submission are absent from the returned ids
+        Set<Long> inserted = new HashSet<>();
+        if (graded > 0) {
+            Timestamp submittedAt = Timestamp.valueOf(LocalDateTime.now());
+            inserted.addAll(jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(INSERT_RESULTS_SQL);
+                statement.setLong(1, studentId);
+                statement.setTimestamp(2, submittedAt);
+                statement.setArray(3, connection.createArrayOf("bigint", quizIds));
+                statement.setArray(4, connection.createArrayOf("text", userAnswers));
+                statement.setArray(5, connection.createArrayOf("boolean", correct));
+                statement.setArray(6, connection.createArrayOf("integer", points));
+                statement.setArray(7, connection.createArrayOf("integer", times));
+                return statement;
+            }, (rs, rowNum) -> rs.getLong(1)));
         }
 
-        switch (quiz.getType()) {
-            case MULTIPLE_CHOICE:
-            case TRUE_FALSE:
-            case FILL_BLANK:
-                return quiz.getCorrectAnswer().trim().equalsIgnoreCase(userAnswer.trim());
-            case DRAWING:
-                // For drawing quizzes, we might need more sophisticated comparison
-                // For now, we'll do a simple string comparison
-                return quiz.getCorrectAnswer().equals(userAnswer);
-            case MATCHING:
-                // For matching quizzes, compare JSON strings or implement custom logic
-                return quiz.getCorrectAnswer().equals(userAnswer);
-            default:
-                return false;
+        List<QuizAnswerResult> results = new ArrayList<>(answers.size());
+        row = 0;
+        for (int i = 0; i < answers.size(); i++) {
+            QuizSubmissionRequest answer = answers.get(i);
+            if (!quizzes.containsKey(answer.getQuizId())) {
+                results.add(new QuizAnswerResult(answer.getQuizId(), QuizAnswerResult.NOT_FOUND, null, null));
+            } else if (grades.get(i) == null || !inserted.contains(quizIds[row++])) {
+                results.add(new QuizAnswerResult(answer.getQuizId(), QuizAnswerResult.ALREADY_SUBMITTED, null, null));
+            } else {
+                recentSubmissionFilter.add(studentId, answer.getQuizId());
+                results.add(new QuizAnswerResult(answer.getQuizId(), QuizAnswerResult.SUBMITTED,
+                        correct[row - 1], points[row - 1]));
+            }
         }
+        return results;
     }
 
-    public List<QuizResult> getQuizResultsByStudent(Long studentId) {
-        return quizResultRepository.findByStudentIdOrderBySubmittedAtDesc(studentId);
+    public CursorPage<QuizResult> getQuizResultsByStudent(Long studentId, String cursor, Integer limit) {
+        int pageSize = CursorPage.pageSize(cursor, limit);
+        Pageable page = CursorPage.lookahead(pageSize);
+        List<QuizResult> rows;
+        if (cursor == null) {
+            rows = quizResultRepository.findPageByStudentId(studentId, page);
+        } else {
+            PageCursor position = PageCursor.decode(cursor, 2);
+            rows = quizResultRepository.findPageByStudentIdAfter(studentId,
+                    position.getTimestamp(0), position.getLong(1), page);
+        }
+        return CursorPage.of(rows, pageSize, last -> PageCursor.encode(last.getSubmittedAt(), last.getId()));
     }
 
-    public List<QuizResult> getQuizResultsByCourse(Long courseId) {
-        return quizResultRepository.findByCourseIdOrderBySubmittedAtDesc(courseId);
+    public CursorPage<QuizResult> getQuizResultsByCourse(Long courseId, String cursor, Integer limit) {
+        int pageSize = CursorPage.pageSize(cursor, limit);
+        Pageable page = CursorPage.lookahead(pageSize);
+        List<QuizResult> rows;
+        if (cursor == null) {
+            rows = quizResultRepository.findPageByCourseId(courseId, page);
+        } else {
+            PageCursor position = PageCursor.decode(cursor, 2);
+            rows = quizResultRepository.findPageByCourseIdAfter(courseId,
+                    position.getTimestamp(0), position.getLong(1), page);
+        }
+        return CursorPage.of(rows, pageSize, last -> PageCursor.encode(last.getSubmittedAt(), last.getId()));
     }
 
     public List<QuizResult> getQuizResultsByStudentAndCourse(Long studentId, Long courseId) {
@@ -160,24 +349,25 @@ public class QuizService {
         return quizResultRepository.findByStudent_IdAndQuiz_Id(studentId, quizId);
     }
 
-    public Double getAverageScoreByStudentAndCourse(Long studentId, Long courseId) {
-        return quizResultRepository.findAverageScoreByStudentAndCourse(studentId, courseId);
-    }
-
-    public long getCorrectAnswersCount(Long studentId, Long courseId) {
-        return quizResultRepository.countCorrectAnswersByStudentAndCourse(studentId, courseId);
-    }
-
-    public long getTotalAnswersCount(Long studentId, Long courseId) {
-        return quizResultRepository.countTotalAnswersByStudentAndCourse(studentId, courseId);
+    // Totals kept up to date by the submission statements; empty when the student has not answered yet
+    public Optional<QuizRollup> getQuizRollup(Long studentId, Long courseId) {
+        return quizRollupService.getRollup(studentId, courseId);
     }
 
     public List<Quiz> searchQuizzesInLesson(Long lessonId, String searchTerm) {
-        return quizRepository.searchQuizzesInLesson(lessonId, searchTerm);
+        if (!searchIndexService.isReady()) {
+            return quizRepository.searchQuizzesInLesson(lessonId, searchTerm);
+        }
+        List<Long> ids = searchIndexService.searchQuizzesInLesson(lessonId, searchTerm);
+        return SearchIndexService.inRankOrder(ids, quizRepository.findAllById(ids), Quiz::getId);
     }
 
     public List<Quiz> searchQuizzesInCourse(Long courseId, String searchTerm) {
-        return quizRepository.searchQuizzesInCourse(courseId, searchTerm);
+        if (!searchIndexService.isReady()) {
+            return quizRepository.searchQuizzesInCourse(courseId, searchTerm);
+        }
+        List<Long> ids = searchIndexService.searchQuizzesInCourse(courseId, searchTerm);
+        return SearchIndexService.inRankOrder(ids, quizRepository.findAllById(ids), Quiz::getId);
     }
 
     public long getQuizzesCountByLesson(Long lessonId) {
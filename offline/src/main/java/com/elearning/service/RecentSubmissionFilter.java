@@ -0,0 +1,71 @@
+package com.elearning.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Student and quiz pairs submitted recently on this instance, so a double-click is refused without a database
+// round trip. Exact rather than probabilistic: a false positive would reject a legitimate first answer. The
+// pairs are spread over independently locked stripes, each evicting its oldest entries, so an exam burst does
+// not serialize on one lock. Forgetting a pair is safe; the unique constraint on quiz_results still holds.
+@Component
+public class RecentSubmissionFilter {
+
+    private static final int STRIPES = 64;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    public RecentSubmissionFilter(@Value("${quiz.recent-submissions.capacity:100000}") int capacity) {
+        int perStripe = Math.max(1, capacity / STRIPES);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(perStripe);
+        }
+    }
+
+    public boolean contains(Long studentId, Long quizId) {
+        Stripe stripe = stripeFor(studentId, quizId);
+        synchronized (stripe) {
+            return stripe.containsKey(new Submission(studentId, quizId));
+        }
+    }
+
+    // False when the pair is already present, i.e. this is a duplicate
+    public boolean add(Long studentId, Long quizId) {
+        Stripe stripe = stripeFor(studentId, quizId);
+        synchronized (stripe) {
+            return stripe.putIfAbsent(new Submission(studentId, quizId), Boolean.TRUE) == null;
+        }
+    }
+
+    // For a submission that was added but never stored
+    public void remove(Long studentId, Long quizId) {
+        Stripe stripe = stripeFor(studentId, quizId);
+        synchronized (stripe) {
+            stripe.remove(new Submission(studentId, quizId));
+        }
+    }
+
+    private Stripe stripeFor(Long studentId, Long quizId) {
+        int hash = 31 * Long.hashCode(studentId) + Long.hashCode(quizId);
+        hash ^= hash >>> 16;
+        return stripes[hash & (STRIPES - 1)];
+    }
+
+    private record Submission(long studentId, long quizId) {
+    }
+
+    private static class Stripe extends LinkedHashMap<Submission, Boolean> {
+        private final int capacity;
+
+        private Stripe(int capacity) {
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Submission, Boolean> eldest) {
+            return size() > capacity;
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package com.elearning.service;
+
+import com.elearning.dto.MessageResponse;
+import com.elearning.dto.RosterImportResult;
+import com.elearning.dto.SignupRequest;
+import com.elearning.entity.User;
+import com.elearning.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+public class RosterImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RosterImportService.class);
+
+    private static final String INSERT_USER_SQL =
+            "INSERT INTO users (username, email, password, first_name, last_name, role, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${roster-import.batch-size:500}")
+    private int batchSize;
+
+    // Reads the roster, processes it in fixed-size batches and writes one NDJSON result line per row,
+    // so memory stays bounded by the batch size rather than the roster size
+    public void importRoster(InputStream input, boolean json, OutputStream output) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(output);
+        generator.setRootValueSeparator(null);
+        Map<String, Integer> totals = new LinkedHashMap<>();
+
+        RowReader reader = json ? new JsonRowReader(input) : new CsvRowReader(input);
+        List<SignupRequest> batch = new ArrayList<>(batchSize);
+        int firstRow = 1;
+        SignupRequest row;
+        while ((row = reader.next()) != null) {
+            batch.add(row);
+            if (batch.size() == batchSize) {
+                writeResults(generator, processBatch(batch, firstRow), totals);
+                firstRow += batch.size();
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            writeResults(generator, processBatch(batch, firstRow), totals);
+        }
+
+        objectMapper.writeValue(generator, new MessageResponse("Roster import finished", true, totals));
+        generator.writeRaw('\n');
+        generator.flush();
+    }
+
+    private List<RosterImportResult> processBatch(List<SignupRequest> batch, int firstRow) {
+        RosterImportResult[] results = new RosterImportResult[batch.size()];
+        List<Integer> candidates = new ArrayList<>();
+        Set<String> seenUsernames = new HashSet<>();
+        Set<String> seenEmails = new HashSet<>();
+
+        for (int i = 0; i < batch.size(); i++) {
+            SignupRequest request = batch.get(i);
+            Set<ConstraintViolation<SignupRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                String message = violations.stream()
+                        .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining(", "));
+                results[i] = new RosterImportResult(firstRow + i, request.getUsername(), RosterImportResult.INVALID, message);
+            } else if (!seenUsernames.add(request.getUsername()) || !seenEmails.add(request.getEmail())) {
+                results[i] = new RosterImportResult(firstRow + i, request.getUsername(), RosterImportResult.DUPLICATE,
+                        "Duplicate username or email within the roster");
+            } else {
+                candidates.add(i);
+            }
+        }
+
+        // One set-based uniqueness check for the whole batch
+        if (!candidates.isEmpty()) {
+            Set<String> takenUsernames = new HashSet<>();
+            Set<String> takenEmails = new HashSet<>();
+            for (Object[] existing : userRepository.findExistingUsernamesAndEmails(seenUsernames, seenEmails)) {
+                takenUsernames.add((String) existing[0]);
+                takenEmails.add((String) existing[1]);
+            }
+            candidates.removeIf(i -> {
+                SignupRequest request = batch.get(i);
+                if (takenUsernames.contains(request.getUsername())) {
+                    results[i] = new RosterImportResult(firstRow + i, request.getUsername(), RosterImportResult.DUPLICATE,
+                            "Username is already taken");
+                    return true;
+                }
+                if (takenEmails.contains(request.getEmail())) {
+                    results[i] = new RosterImportResult(firstRow + i, request.getUsername(), RosterImportResult.DUPLICATE,
+                            "Email is already in use");
+                    return true;
+                }
+                return false;
+            });
+        }
+
+        if (!candidates.isEmpty()) {
+            List<String> encodedPasswords = passwordHashingService.encodeAll(candidates.stream()
+                    .map(i -> batch.get(i).getPassword())
+                    .collect(Collectors.toList()));
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            List<Object[]> rows = new ArrayList<>(candidates.size());
+            for (int c = 0; c < candidates.size(); c++) {
+                SignupRequest request = batch.get(candidates.get(c));
+                rows.add(new Object[] {request.getUsername(), request.getEmail(), encodedPasswords.get(c),
+                        request.getFirstName(), request.getLastName(), User.Role.STUDENT.name(), now, now});
+            }
+            insertRows(rows, candidates, batch, firstRow, results);
+        }
+
+        return Arrays.asList(results);
+    }
+
+    private void insertRows(List<Object[]> rows, List<Integer> candidates, List<SignupRequest> batch,
+                            int firstRow, RosterImportResult[] results) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_USER_SQL, rows));
+            for (int i : candidates) {
+                results[i] = new RosterImportResult(firstRow + i, batch.get(i).getUsername(), RosterImportResult.CREATED, null);
+            }
+        } catch (DataAccessException batchFailure) {
+            // A concurrent registration won a unique key; retry row by row to report exactly which ones failed
+            logger.warn("Roster batch insert failed, retrying rows individually: {}", batchFailure.getMessage());
+            for (int c = 0; c < candidates.size(); c++) {
+                int i = candidates.get(c);
+                String username = batch.get(i).getUsername();
+                try {
+                    jdbcTemplate.update(INSERT_USER_SQL, rows.get(c));
+                    results[i] = new RosterImportResult(firstRow + i, username, RosterImportResult.CREATED, null);
+                } catch (DataAccessException e) {
+                    results[i] = new RosterImportResult(firstRow + i, username, RosterImportResult.FAILED,
+                            "Username or email is already in use");
+                }
+            }
+        }
+    }
+
+    private void writeResults(JsonGenerator generator, List<RosterImportResult> results,
+                              Map<String, Integer> totals) throws IOException {
+        for (RosterImportResult result : results) {
+            objectMapper.writeValue(generator, result);
+            generator.writeRaw('\n');
+            totals.merge(result.getStatus(), 1, Integer::sum);
+        }
+        generator.flush();
+    }
+
+    private interface RowReader {
+        SignupRequest next() throws IOException;
+    }
+
+    // Streams the elements of a top-level JSON array one at a time
+    private class JsonRowReader implements RowReader {
+        private final JsonParser parser;
+
+        private JsonRowReader(InputStream input) throws IOException {
+            this.parser = objectMapper.getFactory().createParser(input);
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Roster JSON must be an array of users");
+            }
+        }
+
+        @Override
+        public SignupRequest next() throws IOException {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            return parser.readValueAs(SignupRequest.class);
+        }
+    }
+
+    // Header-driven CSV reader: username,email,password,firstName,lastName (quoted fields allowed)
+    private static class CsvRowReader implements RowReader {
+        private final BufferedReader reader;
+        private final Map<String, Integer> columns = new HashMap<>();
+
+        private CsvRowReader(InputStream input) throws IOException {
+            this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+            String header = reader.readLine();
+            if (header == null) {
+                return;
+            }
+            List<String> names = parseLine(header.replace("\uFEFF", ""));
+            for (int i = 0; i < names.size(); i++) {
+                columns.put(names.get(i).trim().replace("_", "").toLowerCase(Locale.ROOT), i);
+            }
+        }
+
+        @Override
+        public SignupRequest next() throws IOException {
+            String line;
+            do {
+                line = reader.readLine();
+                if (line == null) {
+                    return null;
+                }
+            } while (line.isBlank());
+
+            List<String> values = parseLine(line);
+            SignupRequest request = new SignupRequest();
+            request.setUsername(value(values, "username"));
+            request.setEmail(value(values, "email"));
+            request.setPassword(value(values, "password"));
+            request.setFirstName(value(values, "firstname"));
+            request.setLastName(value(values, "lastname"));
+            return request;
+        }
+
+        private String value(List<String> values, String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= values.size()) {
+                return null;
+            }
+            String value = values.get(index).trim();
+            return value.isEmpty() ? null : value;
+        }
+
+        private static List<String> parseLine(String line) {
+            List<String> values = new ArrayList<>();
+            StringBuilder current = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < line.length(); i++) {
+                char ch = line.charAt(i);
+                if (quoted) {
+                    if (ch == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        current.append('"');
+                        i++;
+                    } else if (ch == '"') {
+                        quoted = false;
+                    } else {
+                        current.append(ch);
+                    }
+                } else if (ch == '"') {
+                    quoted = true;
+                } else if (ch == ',') {
+                    values.add(current.toString());
+                    current.setLength(0);
+                } else {
+                    current.append(ch);
+                }
+            }
+            values.add(current.toString());
+            return values;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.elearning.service;
+
+import com.elearning.dto.SyncChange;
+import com.elearning.dto.SyncChangesResponse;
+import com.elearning.entity.ContentChange;
+import com.elearning.entity.Course;
+import com.elearning.entity.Lesson;
+import com.elearning.entity.Quiz;
+import com.elearning.event.ContentChangedEvent;
+import com.elearning.repository.ContentChangeRepository;
+import com.elearning.repository.CourseRepository;
+import com.elearning.repository.LessonRepository;
+import com.elearning.repository.QuizRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+// Monotonic content change log behind /sync/changes. Entries are written in the same transaction as the
+// content change, and writers are serialized until commit so versions become visible strictly in order.
+@Service
+public class SyncService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyncService.class);
+
+    private static final long CHANGE_LOG_LOCK = 0x53594E43L;
+    private static final int MAX_PAGE_SIZE = 2000;
+
+    @Autowired
+    private ContentChangeRepository contentChangeRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private LessonRepository lessonRepository;
+
+    @Autowired
+    private QuizRepository quizRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${sync.page-size:500}")
+    private int defaultPageSize;
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void recordChange(ContentChangedEvent event) {
+        lockChangeLog();
+        contentChangeRepository.save(new ContentChange(event));
+    }
+
+    // Visible like the regular read endpoints: content of published courses, and of the caller's own courses.
+    // Anything else is sent as a tombstone, so a client that synced a course before it was unpublished drops it;
+    // unpublishing writes a course entry only, so a course tombstone also stands for its lessons and quizzes.
+    @Transactional(readOnly = true)
+    public SyncChangesResponse getChanges(long since, Integer limit, Long userId) {
+        int pageSize = limit == null || limit <= 0 ? defaultPageSize : Math.min(limit, MAX_PAGE_SIZE);
+        List<ContentChange> rows = contentChangeRepository.findChangesSince(since, PageRequest.of(0, pageSize + 1));
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+        }
+        long version = rows.isEmpty() ? since : rows.get(rows.size() - 1).getId();
+
+        // Several edits to one row inside the page collapse into its latest entry
+        Map<String, ContentChange> latest = new LinkedHashMap<>();
+        for (ContentChange change : rows) {
+            String key = change.getContentType() + ":" + change.getContentId();
+            latest.remove(key);
+            latest.put(key, change);
+        }
+
+        Set<Long> courseIds = new HashSet<>();
+        for (ContentChange change : latest.values()) {
+            courseIds.add(change.getCourseId());
+        }
+        // Course entries carry their own id as the course id, so this also loads every changed course
+        Map<Long, Course> courses = byId(courseRepository.findAllById(courseIds), Course::getId);
+        Set<Long> visibleCourses = new HashSet<>();
+        for (Course course : courses.values()) {
+            if (Boolean.TRUE.equals(course.getIsPublished()) || userId.equals(course.getTeacherId())) {
+                visibleCourses.add(course.getId());
+            }
+        }
+
+        Map<ContentChangedEvent.ContentType, List<Long>> liveIds = new HashMap<>();
+        for (ContentChange change : latest.values()) {
+            if (!change.isDeleted() && visibleCourses.contains(change.getCourseId())) {
+                liveIds.computeIfAbsent(change.getContentType(), t -> new ArrayList<>()).add(change.getContentId());
+            }
+        }
+        Map<Long, Lesson> lessons = byId(load(liveIds, ContentChangedEvent.ContentType.LESSON, lessonRepository::findAllById), Lesson::getId);
+        Map<Long, Quiz> quizzes = byId(load(liveIds, ContentChangedEvent.ContentType.QUIZ, quizRepository::findAllWithLessonByIdIn), Quiz::getId);
+
+        List<SyncChange> changes = new ArrayList<>(latest.size());
+        for (ContentChange change : latest.values()) {
+            Object data = null;
+            if (!change.isDeleted() && visibleCourses.contains(change.getCourseId())) {
+                switch (change.getContentType()) {
+                    case COURSE:
+                        data = courses.get(change.getContentId());
+                        break;
+                    case LESSON:
+                        data = lessons.get(change.getContentId());
+                        break;
+                    case QUIZ:
+                        data = quizzes.get(change.getContentId());
+                        break;
+                }
+            }
+            // A row deleted or hidden after this entry was written is reported as a tombstone straight away
+            changes.add(new SyncChange(change.getId(), change.getContentType().name(), change.getContentId(),
+                    change.getCourseId(), data == null, data));
+        }
+        return new SyncChangesResponse(version, hasMore, changes);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void seedChangeLog() {
+        lockChangeLog();
+        if (contentChangeRepository.count() == 0) {
+            int seeded = contentChangeRepository.seedFromContent();
+            logger.info("Seeded content change log with {} entries", seeded);
+        }
+    }
+
+    // Bounds the log by the number of content rows rather than the number of edits
+    @Scheduled(fixedDelayString = "${sync.compaction-interval-ms:3600000}",
+               initialDelayString = "${sync.compaction-interval-ms:3600000}")
+    @Transactional
+    public void compactChangeLog() {
+        int removed = contentChangeRepository.deleteSupersededChanges();
+        if (removed > 0) {
+            logger.info("Compacted content change log, removed {} superseded entries", removed);
+        }
+    }
+
+    // Held until commit, so change log ids are committed in increasing order
+    private void lockChangeLog() {
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(?)", rs -> null, CHANGE_LOG_LOCK);
+    }
+
+    private static <T> List<T> load(Map<ContentChangedEvent.ContentType, List<Long>> ids, ContentChangedEvent.ContentType type,
+                                    Function<Collection<Long>, List<T>> loader) {
+        List<Long> typeIds = ids.get(type);
+        return typeIds == null ? List.of() : loader.apply(typeIds);
+    }
+
+    private static <T> Map<Long, T> byId(List<T> rows, Function<T, Long> idOf) {
+        Map<Long, T> byId = new HashMap<>();
+        for (T row : rows) {
+            byId.put(idOf.apply(row), row);
+        }
+        return byId;
+    }
+}
@@ -3,18 +3,31 @@ package com.elearning.service;
 import com.elearning.entity.User;
 import com.elearning.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
-    
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
+
     @Autowired
     private UserRepository userRepository;
 
+    @Value("${jwt.user-cache.ttl-seconds:0}")
+    private long userCacheTtlSeconds;
+
+    @Value("${jwt.user-cache.max-size:10000}")
+    private int userCacheMaxSize;
+
+    private final Map<String, CachedUser> userCache = new ConcurrentHashMap<>();
+
     @Override
     @Transactional
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
@@ -23,4 +36,51 @@ public class UserDetailsServiceImpl implements UserDetailsService {
 
         return user;
     }
+
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = userRepository.findByUsername(userDetails.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("User Not Found with username: " + userDetails.getUsername()));
+        user.setPassword(newPassword);
+        evictCachedUser(user.getUsername());
+        return userRepository.save(user);
+    }
+
+    // Full user entity for endpoints that need more than the token claims, served from a bounded TTL cache
+    @Transactional(readOnly = true)
+    public User loadFullUser(String username) throws UsernameNotFoundException {
+        if (userCacheTtlSeconds <= 0) {
+            return (User) loadUserByUsername(username);
+        }
+
+        long now = System.currentTimeMillis();
+        CachedUser cached = userCache.get(username);
+        if (cached != null && cached.expiresAt > now) {
+            return cached.user;
+        }
+
+        User user = (User) loadUserByUsername(username);
+        if (userCache.size() >= userCacheMaxSize) {
+            userCache.values().removeIf(entry -> entry.expiresAt <= now);
+        }
+        if (userCache.size() < userCacheMaxSize) {
+            userCache.put(username, new CachedUser(user, now + userCacheTtlSeconds * 1000));
+        }
+        return user;
+    }
+
+    public void evictCachedUser(String username) {
+        userCache.remove(username);
+    }
+
+    private static class CachedUser {
+        private final User user;
+        private final long expiresAt;
+
+        private CachedUser(User user, long expiresAt) {
+            this.user = user;
+            this.expiresAt = expiresAt;
+        }
+    }
 }
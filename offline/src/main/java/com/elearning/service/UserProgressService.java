@@ -1,14 +1,20 @@
 package com.elearning.service;
 
+import com.elearning.dto.ContentVersion;
+import com.elearning.dto.CursorPage;
+import com.elearning.dto.PageCursor;
 import com.elearning.entity.UserProgress;
 import com.elearning.entity.User;
 import com.elearning.entity.Course;
 import com.elearning.entity.Lesson;
+import com.elearning.event.EnrollmentChangedEvent;
 import com.elearning.repository.UserProgressRepository;
 import com.elearning.repository.UserRepository;
 import com.elearning.repository.CourseRepository;
 import com.elearning.repository.LessonRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -31,6 +37,9 @@ public class UserProgressService {
     @Autowired
     private LessonRepository lessonRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public UserProgress getOrCreateProgress(Long studentId, Long courseId) {
         Optional<UserProgress> existingProgress = userProgressRepository.findByStudent_IdAndCourse_Id(studentId, courseId);
         
@@ -49,7 +58,9 @@ public class UserProgressService {
             long totalLessons = lessonRepository.countByCourseId(courseId);
             progress.setTotalLessons((int) totalLessons);
             
-            return userProgressRepository.save(progress);
+            UserProgress saved = userProgressRepository.save(progress);
+            eventPublisher.publishEvent(new EnrollmentChangedEvent(courseId));
+            return saved;
         }
         
         throw new RuntimeException("Student or course not found");
@@ -91,12 +102,30 @@ public class UserProgressService {
         }
     }
 
+    public ContentVersion getProgressVersionByStudent(Long studentId) {
+        return userProgressRepository.findVersionByStudentId(studentId);
+    }
+
+    public ContentVersion getProgressVersionByCourse(Long courseId) {
+        return userProgressRepository.findVersionByCourseId(courseId);
+    }
+
     public List<UserProgress> getProgressByStudent(Long studentId) {
         return userProgressRepository.findByStudentIdOrderByLastUpdatedDesc(studentId);
     }
 
-    public List<UserProgress> getProgressByCourse(Long courseId) {
-        return userProgressRepository.findByCourseIdOrderByCompletionPercentageDesc(courseId);
+    public CursorPage<UserProgress> getProgressByCourse(Long courseId, String cursor, Integer limit) {
+        int pageSize = CursorPage.pageSize(cursor, limit);
+        Pageable page = CursorPage.lookahead(pageSize);
+        List<UserProgress> rows;
+        if (cursor == null) {
+            rows = userProgressRepository.findPageByCourseId(courseId, page);
+        } else {
+            PageCursor position = PageCursor.decode(cursor, 2);
+            rows = userProgressRepository.findPageByCourseIdAfter(courseId,
+                    position.getDouble(0), position.getLong(1), page);
+        }
+        return CursorPage.of(rows, pageSize, last -> PageCursor.encode(last.getCompletionPercentage(), last.getId()));
     }
 
     public Optional<UserProgress> getProgressByStudentAndCourse(Long studentId, Long courseId) {
@@ -149,6 +178,7 @@ public class UserProgressService {
         Optional<UserProgress> progress = userProgressRepository.findByStudent_IdAndCourse_Id(studentId, courseId);
         if (progress.isPresent()) {
             userProgressRepository.delete(progress.get());
+            eventPublisher.publishEvent(new EnrollmentChangedEvent(courseId));
         }
     }
 
@@ -169,8 +199,18 @@ public class UserProgressService {
         throw new RuntimeException("Progress record not found");
     }
 
-    public List<UserProgress> getHighPerformers(Double minPercentage) {
-        return userProgressRepository.findByCompletionPercentageGreaterThanEqual(minPercentage);
+    public CursorPage<UserProgress> getHighPerformers(Double minPercentage, String cursor, Integer limit) {
+        int pageSize = CursorPage.pageSize(cursor, limit);
+        Pageable page = CursorPage.lookahead(pageSize);
+        List<UserProgress> rows;
+        if (cursor == null) {
+            rows = userProgressRepository.findPageByCompletionPercentageAtLeast(minPercentage, page);
+        } else {
+            PageCursor position = PageCursor.decode(cursor, 2);
+            rows = userProgressRepository.findPageByCompletionPercentageAtLeastAfter(minPercentage,
+                    position.getDouble(0), position.getLong(1), page);
+        }
+        return CursorPage.of(rows, pageSize, last -> PageCursor.encode(last.getCompletionPercentage(), last.getId()));
     }
 
     public UserProgress updateQuizScore(Long studentId, Long courseId, Double newScore) {
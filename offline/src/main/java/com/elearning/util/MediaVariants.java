@@ -0,0 +1,37 @@
+package com.elearning.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+// Responsive widths for images in the local media store; /media/{key}?w=480 serves the 480px variant
+public final class MediaVariants {
+
+    public static final int[] WIDTHS = {160, 480, 1080};
+
+    private static final Pattern MEDIA_URL = Pattern.compile(".*/media/[0-9a-f]{64}");
+
+    private MediaVariants() {
+    }
+
+    public static boolean isVariantWidth(int width) {
+        for (int candidate : WIDTHS) {
+            if (candidate == width) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Width -> URL for images we host; null for external URLs, which we cannot resize
+    public static Map<Integer, String> forUrl(String url) {
+        if (url == null || !MEDIA_URL.matcher(url).matches()) {
+            return null;
+        }
+        Map<Integer, String> variants = new LinkedHashMap<>();
+        for (int width : WIDTHS) {
+            variants.put(width, url + "?w=" + width);
+        }
+        return variants;
+    }
+}
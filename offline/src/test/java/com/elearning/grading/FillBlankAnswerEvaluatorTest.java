@@ -0,0 +1,71 @@
+package com.elearning.grading;
+
+import com.elearning.entity.Quiz;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Keys written before answerMatching existed must grade exactly as the trimmed, case-insensitive comparison
+// they were written against
+class FillBlankAnswerEvaluatorTest {
+
+    private final FillBlankAnswerEvaluator evaluator = new FillBlankAnswerEvaluator();
+
+    @Test
+    void legacyKeyWithBarIsLiteral() {
+        AnswerKey key = evaluator.compile(quiz("a|b", null));
+
+        assertTrue(key.matches(" A|B "));
+        assertFalse(key.matches("a"));
+        assertFalse(key.matches("b"));
+    }
+
+    @Test
+    void legacyKeyWithSlashesIsLiteral() {
+        AnswerKey key = evaluator.compile(quiz("/usr/", null));
+
+        assertTrue(key.matches("/USR/"));
+        assertFalse(key.matches("usr"));
+    }
+
+    @Test
+    void legacyKeyKeepsInnerSpaces() {
+        AnswerKey key = evaluator.compile(quiz("getElementById", null));
+
+        assertTrue(key.matches("  GetElementById "));
+        assertFalse(key.matches("get Element By Id"));
+    }
+
+    @Test
+    void alternativesAreOptIn() {
+        AnswerKey key = evaluator.compile(quiz("colour|color", Quiz.AnswerMatching.ALTERNATIVES));
+
+        assertTrue(key.matches("Color"));
+        assertTrue(key.matches(" colour "));
+        assertFalse(key.matches("colour|color"));
+    }
+
+    @Test
+    void patternIsOptIn() {
+        AnswerKey key = evaluator.compile(quiz("/get\\s*element\\s*by\\s*id/", Quiz.AnswerMatching.PATTERN));
+
+        assertTrue(key.matches("get Element By Id"));
+        assertFalse(key.matches("getElement"));
+    }
+
+    @Test
+    void invalidPatternFallsBackToLiteral() {
+        AnswerKey key = evaluator.compile(quiz("/[/", Quiz.AnswerMatching.PATTERN));
+
+        assertTrue(key.matches("/[/"));
+    }
+
+    private static Quiz quiz(String correctAnswer, Quiz.AnswerMatching matching) {
+        Quiz quiz = new Quiz();
+        quiz.setType(Quiz.QuizType.FILL_BLANK);
+        quiz.setCorrectAnswer(correctAnswer);
+        quiz.setAnswerMatching(matching);
+        return quiz;
+    }
+}
@@ -0,0 +1,187 @@
+package com.elearning.service;
+
+import com.elearning.dto.QuizAnswerResult;
+import com.elearning.dto.QuizSubmissionRequest;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Identical submissions racing each other must leave exactly one result and count once in the rollup, at the
+// scale of a class submitting the same exam. Uses the seeded students, quizzes and courses from data.sql; each
+// test takes its own student and quiz.
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(properties = {
+        "quiz.ingestion.journal=target/test-data/quiz-results.journal",
+        "media.root=target/test-data/media",
+        "logging.level.com.elearning=INFO",
+        "logging.level.org.springframework.security=INFO",
+        "logging.level.org.springframework.web=INFO"
+})
+class QuizSubmissionConcurrencyTest {
+
+    private static final int SUBMITTERS = 2000;
+    private static final long QUIZ_ID = 1L;
+    private static final long COURSE_ID = 1L;
+    // Quiz 4 is on lesson 5, in course 2
+    private static final long OTHER_QUIZ_ID = 4L;
+    private static final long OTHER_COURSE_ID = 2L;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    private static ExecutorService submitters;
+
+    @Autowired
+    private QuizService quizService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void startSubmitters() {
+        submitters = Executors.newFixedThreadPool(SUBMITTERS);
+    }
+
+    @AfterAll
+    static void stopSubmitters() {
+        submitters.shutdownNow();
+    }
+
+    @Test
+    void parallelSingleSubmissionsStoreOneResult() throws Exception {
+        long studentId = 3L;
+        int stored = race(() -> {
+            quizService.submitQuizAnswer(QUIZ_ID, studentId, "All of the above", 10, true);
+            return true;
+        });
+
+        assertEquals(1, stored);
+        assertStoredOnce(studentId, QUIZ_ID, COURSE_ID);
+    }
+
+    @Test
+    void parallelBatchSubmissionsStoreOneResult() throws Exception {
+        long studentId = 4L;
+        List<QuizSubmissionRequest> answers = List.of(new QuizSubmissionRequest(QUIZ_ID, "All of the above", 10));
+        int stored = race(() -> QuizAnswerResult.SUBMITTED.equals(
+                quizService.submitQuizAnswers(answers, studentId).get(10, TimeUnit.SECONDS).get(0).getStatus()));
+
+        assertEquals(1, stored);
+        assertStoredOnce(studentId, QUIZ_ID, COURSE_ID);
+    }
+
+    // The batch path does not consult the in-memory filter before inserting, so this races on the constraint
+    @Test
+    void parallelSingleAndBatchSubmissionsStoreOneResult() throws Exception {
+        long studentId = 5L;
+        List<QuizSubmissionRequest> answers = List.of(new QuizSubmissionRequest(QUIZ_ID, "All of the above", 10));
+        int[] turn = {0};
+        int stored = race(() -> {
+            boolean single;
+            synchronized (turn) {
+                single = turn[0]++ % 2 == 0;
+            }
+            if (single) {
+                quizService.submitQuizAnswer(QUIZ_ID, studentId, "All of the above", 10, true);
+                return true;
+            }
+            return QuizAnswerResult.SUBMITTED.equals(
+                    quizService.submitQuizAnswers(answers, studentId).get(10, TimeUnit.SECONDS).get(0).getStatus());
+        });
+
+        assertEquals(1, stored);
+        assertStoredOnce(studentId, QUIZ_ID, COURSE_ID);
+    }
+
+    // With a filter that remembers nothing, every submission reaches the insert and only the unique
+    // constraint on quiz_results keeps the duplicates out
+    @Test
+    void parallelSingleSubmissionsWithoutFilterStoreOneResult() throws Exception {
+        long studentId = 3L;
+        QuizService target = AopTestUtils.getTargetObject(quizService);
+        Object filter = ReflectionTestUtils.getField(target, "recentSubmissionFilter");
+        ReflectionTestUtils.setField(target, "recentSubmissionFilter", new ForgetfulSubmissionFilter());
+        try {
+            int stored = race(() -> {
+                quizService.submitQuizAnswer(OTHER_QUIZ_ID, studentId, "False", 10, true);
+                return true;
+            });
+
+            assertEquals(1, stored);
+            assertStoredOnce(studentId, OTHER_QUIZ_ID, OTHER_COURSE_ID);
+        } finally {
+            ReflectionTestUtils.setField(target, "recentSubmissionFilter", filter);
+        }
+    }
+
+    // Releases every submitter at once and counts those that report a stored result
+    private int race(Callable<Boolean> submit) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> attempts = new ArrayList<>();
+        for (int i = 0; i < SUBMITTERS; i++) {
+            attempts.add(submitters.submit(() -> {
+                start.await();
+                try {
+                    return submit.call();
+                } catch (RuntimeException | ExecutionException e) {
+                    return false;
+                }
+            }));
+        }
+        start.countDown();
+        int stored = 0;
+        for (Future<Boolean> attempt : attempts) {
+            if (attempt.get(60, TimeUnit.SECONDS)) {
+                stored++;
+            }
+        }
+        return stored;
+    }
+
+    private void assertStoredOnce(long studentId, long quizId, long courseId) {
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM quiz_results WHERE student_id = ? AND quiz_id = ?",
+                Integer.class, studentId, quizId));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT answer_count FROM quiz_rollups WHERE student_id = ? AND course_id = ?",
+                Integer.class, studentId, courseId));
+    }
+
+    private static class ForgetfulSubmissionFilter extends RecentSubmissionFilter {
+        ForgetfulSubmissionFilter() {
+            super(1);
+        }
+
+        @Override
+        public boolean contains(Long studentId, Long quizId) {
+            return false;
+        }
+
+        @Override
+        public boolean add(Long studentId, Long quizId) {
+            return true;
+        }
+    }
+}